@@ -1,7 +1,7 @@
 -- ======================================================
 -- Database: employee_management
 -- Description: Employee Management System (BCNF Schema)
--- Tables: department, designation, employee, user_creds
+-- Tables: department, designation, employee, user_creds, audit_log
 -- ======================================================
 
 -- 1️⃣ Create Database
@@ -42,6 +42,21 @@ CREATE TABLE user_creds (
     password_hash VARCHAR(255) NOT NULL
 );
 
+-- 6️⃣ Table: audit_log
+-- (append-only trail of create/update/delete changes, written in batches)
+CREATE TABLE audit_log (
+    audit_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT,
+    action VARCHAR(10) NOT NULL,
+    changes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_audit_entity (entity_type, entity_id)
+);
+
+-- Further schema changes (indexes etc.) are Flyway migrations in
+-- src/main/resources/db/migration, applied by the application on startup.
+
 -- ======================================================
 -- ✅ Optional Sample Data
 -- ======================================================
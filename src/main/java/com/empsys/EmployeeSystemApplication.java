@@ -2,8 +2,11 @@ package com.empsys;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// the reactive read path builds its own connection pool (see ReactiveDataConfig); an auto-configured
+// ConnectionFactory bean would switch off the JDBC datasource used by JPA
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class EmployeeSystemApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,17 @@
+package com.empsys.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String DESIGNATIONS = "designations";
+    public static final String EMPLOYEE_PAGES = "employeePages";
+
+    // only the first pages of normal-sized listings are cached, deeper or larger ones go to the store
+    public static final int MAX_CACHED_PAGE = 20;
+    public static final int MAX_CACHED_PAGE_SIZE = 100;
+}
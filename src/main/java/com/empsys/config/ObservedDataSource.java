@@ -0,0 +1,98 @@
+package com.empsys.config;
+
+import com.empsys.service.SlowQueryService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times every statement execution and hands the ones
+ * over the slow-query threshold, with their bind values, to {@link SlowQueryService}.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SlowQueryService> slowQueries;
+
+    public ObservedDataSource(DataSource target, ObjectProvider<SlowQueryService> slowQueries) {
+        super(target);
+        this.slowQueries = slowQueries;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(super.getConnection(username, password));
+    }
+
+    private Connection observe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement && "prepareStatement".equals(method.getName())) {
+                        return statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                    }
+                    if (result instanceof Statement && "createStatement".equals(method.getName())) {
+                        return statement(Statement.class, (Statement) result, null);
+                    }
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T statement(Class<T> type, Statement target, String preparedSql) {
+        InvocationHandler handler = new InvocationHandler() {
+            private Object[] params = new Object[8];
+            private int highestIndex;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    if (index >= params.length) {
+                        params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+                    }
+                    params[index] = name.equals("setNull") ? null : args[1];
+                    highestIndex = Math.max(highestIndex, index);
+                } else if (name.equals("clearParameters")) {
+                    Arrays.fill(params, null);
+                    highestIndex = 0;
+                } else if (name.startsWith("execute")) {
+                    String sql = preparedSql != null ? preparedSql : (args != null && args.length > 0 ? (String) args[0] : null);
+                    long start = System.nanoTime();
+                    try {
+                        return ObservedDataSource.invoke(target, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - start;
+                        SlowQueryService service = slowQueries.getIfAvailable();
+                        if (sql != null && service != null && service.isSlow(elapsed)) {
+                            service.record(sql, Arrays.copyOf(params, highestIndex + 1), elapsed, getTargetDataSource());
+                        }
+                    }
+                }
+                return ObservedDataSource.invoke(target, method, args);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.empsys.config;
+
+import com.empsys.service.SlowQueryService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class QueryObserverConfig {
+
+    // wraps the primary datasource so JPA and JdbcTemplate statements are timed
+    @Bean
+    @ConditionalOnProperty(name = "empsys.query-observer.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<SlowQueryService> slowQueries) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ObservedDataSource)) {
+                    return new ObservedDataSource(dataSource, slowQueries);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.empsys.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "empsys.reactive.enabled", havingValue = "true")
+public class ReactiveDataConfig {
+
+    @Value("${empsys.reactive.url}")
+    private String url;
+
+    @Value("${empsys.reactive.username:}")
+    private String username;
+
+    @Value("${empsys.reactive.password:}")
+    private String password;
+
+    @Value("${empsys.reactive.pool.initial-size:2}")
+    private int initialSize;
+
+    @Value("${empsys.reactive.pool.max-size:10}")
+    private int maxSize;
+
+    @Value("${empsys.reactive.pool.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${empsys.reactive.pool.max-acquire-time-ms:30000}")
+    private long maxAcquireTimeMs;
+
+    private ConnectionPool pool;
+
+    // the pool is owned here and deliberately not exposed as a ConnectionFactory bean,
+    // which would switch off the auto-configured primary datasource used by JPA
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("EmployeeReactivePool")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .validationQuery("SELECT 1")
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.empsys.config;
+
+import com.empsys.repository.ShardedEmployeeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    // shard pools are owned by the repository and deliberately not exposed as DataSource beans,
+    // which would switch off the auto-configured primary datasource used by JPA
+    @Bean
+    @ConditionalOnProperty(name = "empsys.sharding.enabled", havingValue = "true")
+    public ShardedEmployeeRepository shardedEmployeeRepository(ShardingProperties properties, JdbcTemplate jdbcTemplate,
+                                                               @Value("${empsys.reactive.enabled:false}") boolean reactiveEnabled) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("empsys.sharding.enabled is set but no empsys.sharding.shards are configured");
+        }
+        // the reactive endpoints read the primary database, where sharded employees are not stored
+        if (reactiveEnabled) {
+            throw new IllegalStateException("empsys.reactive.enabled cannot be combined with empsys.sharding.enabled, "
+                    + "set empsys.reactive.enabled=false");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        int connections = 0;
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("EmployeeShard-" + i);
+            ds.setJdbcUrl(shard.getUrl());
+            ds.setUsername(shard.getUsername());
+            ds.setPassword(shard.getPassword());
+            ds.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.add(ds);
+            connections += shard.getMaximumPoolSize();
+        }
+        // a fan-out thread holds one shard connection while it runs, more threads than connections would only wait
+        int fanOutThreads = properties.getFanOutThreads() > 0 ? properties.getFanOutThreads() : connections;
+        ShardedEmployeeRepository repository = new ShardedEmployeeRepository(shards, jdbcTemplate,
+                properties.getStrategy(), properties.getIdBlockSize(), properties.getMaxPageOffset(),
+                fanOutThreads, properties.getFanOutQueueLimit());
+        if (properties.isInitSchema()) {
+            repository.initSchema();
+        }
+        // employee_email_key is a Flyway migration on the primary database, which runs before this bean
+        repository.syncEmailKeys();
+        return repository;
+    }
+}
@@ -0,0 +1,136 @@
+package com.empsys.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "empsys.sharding")
+public class ShardingProperties {
+
+    // store employees across the shards below instead of the primary datasource
+    private boolean enabled = false;
+
+    // "department" places new rows by dept id, "id-range" fills shards in id order
+    private String strategy = "department";
+
+    // size of the employee id block owned by each shard; shard k owns (k * size, (k + 1) * size]
+    private long idBlockSize = 100_000_000L;
+
+    // create the employee table on each shard if it is missing
+    private boolean initSchema = true;
+
+    // pages starting past this row are rejected, every shard would have to return offset + size rows
+    private long maxPageOffset = 10_000;
+
+    // threads running shard queries; 0 sizes the pool to the sum of the shard pool sizes
+    private int fanOutThreads = 0;
+
+    // shard queries that may wait for a thread before requests fail with 503
+    private int fanOutQueueLimit = 500;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public long getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    public void setIdBlockSize(long idBlockSize) {
+        this.idBlockSize = idBlockSize;
+    }
+
+    public boolean isInitSchema() {
+        return initSchema;
+    }
+
+    public void setInitSchema(boolean initSchema) {
+        this.initSchema = initSchema;
+    }
+
+    public long getMaxPageOffset() {
+        return maxPageOffset;
+    }
+
+    public void setMaxPageOffset(long maxPageOffset) {
+        this.maxPageOffset = maxPageOffset;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    public int getFanOutQueueLimit() {
+        return fanOutQueueLimit;
+    }
+
+    public void setFanOutQueueLimit(int fanOutQueueLimit) {
+        this.fanOutQueueLimit = fanOutQueueLimit;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.empsys.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs the time from JVM start to the first successful HTTP response, the
+ * number to compare when tuning startup (snapshot warm-up, CDS, AOT).
+ */
+@Component
+public class StartupTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingFilter.class);
+
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+
+        if (!reported.get() && response.getStatus() < 400 && reported.compareAndSet(false, true)) {
+            long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+            log.info("Time to first successful request: {} ms ({} {})",
+                    System.currentTimeMillis() - jvmStart, request.getMethod(), request.getRequestURI());
+        }
+    }
+}
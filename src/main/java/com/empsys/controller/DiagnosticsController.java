@@ -0,0 +1,27 @@
+package com.empsys.controller;
+
+import com.empsys.dto.SlowQueryDTO;
+import com.empsys.service.SlowQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@CrossOrigin(origins = "*")
+public class DiagnosticsController {
+
+    @Autowired
+    private SlowQueryService slowQueryService;
+
+    // slow statements with their EXPLAIN plan, most total time first
+    @GetMapping("/slow-queries")
+    public List<SlowQueryDTO> getSlowQueries() {
+        return slowQueryService.getSlowQueries();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public void resetSlowQueries() {
+        slowQueryService.reset();
+    }
+}
@@ -1,10 +1,16 @@
 package com.empsys.controller;
 
+import com.empsys.dto.DuplicateGroupDTO;
 import com.empsys.dto.EmployeeDTO;
+import com.empsys.dto.TenureBucketDTO;
+import com.empsys.service.DuplicateReportService;
 import com.empsys.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/employees")
@@ -14,12 +20,17 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private DuplicateReportService duplicateReportService;
+
     // ✅ Get all employees with pagination
     @GetMapping
     public Page<EmployeeDTO> getAllEmployees(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return employeeService.getAllEmployees(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "empId") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return employeeService.getAllEmployees(page, size, sortBy, direction);
     }
 
     @GetMapping("/{id}")
@@ -48,8 +59,10 @@ public class EmployeeController {
     public Page<EmployeeDTO> searchEmployees(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return employeeService.searchEmployees(keyword, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "empId") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return employeeService.searchEmployees(keyword, page, size, sortBy, direction);
     }
     
     //count employees apis
@@ -57,4 +70,36 @@ public class EmployeeController {
     public long countEmployees() {
     	return employeeService.countEmployee();
     }
-}
\ No newline at end of file
+
+    // groups of employees sharing a normalized email or phone, largest first
+    @GetMapping("/duplicates")
+    public List<DuplicateGroupDTO> findDuplicates(@RequestParam(defaultValue = "100") int limit) {
+        return duplicateReportService.findDuplicates(limit);
+    }
+
+    // employees hired between two dates (inclusive, yyyy-MM-dd), ordered by hire date
+    @GetMapping("/hired")
+    public Page<EmployeeDTO> getHiredBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return employeeService.getHiredBetween(from, to, page, size, direction);
+    }
+
+    @GetMapping("/hired/count")
+    public long countHiredBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return employeeService.countHiredBetween(from, to);
+    }
+
+    // headcount by years of service on asOf (default today), split at the given year bounds
+    @GetMapping("/tenure")
+    public List<TenureBucketDTO> getTenureBuckets(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(defaultValue = "1,3,5,10") List<Integer> bounds) {
+        return employeeService.getTenureBuckets(asOf != null ? asOf : LocalDate.now(), bounds);
+    }
+}
@@ -0,0 +1,53 @@
+package com.empsys.controller;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.service.ReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// non-blocking reads; writes stay on /api/employees. A Spring MVC controller: the Mono/Flux results
+// are completed as async servlet requests, the application does not run on WebFlux
+@RestController
+@RequestMapping("/api/reactive/employees")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "empsys.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeController {
+
+    @Autowired
+    private ReactiveEmployeeService reactiveEmployeeService;
+
+    @GetMapping
+    public Mono<Page<EmployeeDTO>> getAllEmployees(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "empId") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return reactiveEmployeeService.getAllEmployees(page, size, sortBy, direction);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<EmployeeDTO> getEmployeeById(@PathVariable Long id) {
+        return reactiveEmployeeService.getEmployeeById(id);
+    }
+
+    @GetMapping("/search")
+    public Mono<Page<EmployeeDTO>> searchEmployees(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "empId") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return reactiveEmployeeService.searchEmployees(keyword, page, size, sortBy, direction);
+    }
+
+    // one JSON object per line, written as rows arrive; the next row is only requested once the previous one is sent
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeDTO> exportEmployees() {
+        return reactiveEmployeeService.exportEmployees();
+    }
+}
@@ -0,0 +1,88 @@
+package com.empsys.dto;
+
+import java.util.Date;
+import java.util.List;
+
+public class SlowQueryDTO {
+    private String sql;
+    private String origin;
+    private long count;
+    private long avgMs;
+    private long maxMs;
+    private Date lastSeen;
+    private Boolean fullScan;
+    private List<String> scannedTables;
+    private String plan;
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getAvgMs() {
+        return avgMs;
+    }
+
+    public void setAvgMs(long avgMs) {
+        this.avgMs = avgMs;
+    }
+
+    public long getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(long maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    public Date getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(Date lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+
+    public Boolean getFullScan() {
+        return fullScan;
+    }
+
+    public void setFullScan(Boolean fullScan) {
+        this.fullScan = fullScan;
+    }
+
+    public List<String> getScannedTables() {
+        return scannedTables;
+    }
+
+    public void setScannedTables(List<String> scannedTables) {
+        this.scannedTables = scannedTables;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
@@ -0,0 +1,128 @@
+package com.empsys.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StartupSnapshotDTO {
+    private long createdAt;
+    private long employeeCount;
+    private Long maxEmployeeId;
+    private List<DepartmentDTO> departments = new ArrayList<>();
+    private List<DesignationDTO> designations = new ArrayList<>();
+    private List<EmployeePage> employeePages = new ArrayList<>();
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public Long getMaxEmployeeId() {
+        return maxEmployeeId;
+    }
+
+    public void setMaxEmployeeId(Long maxEmployeeId) {
+        this.maxEmployeeId = maxEmployeeId;
+    }
+
+    public List<DepartmentDTO> getDepartments() {
+        return departments;
+    }
+
+    public void setDepartments(List<DepartmentDTO> departments) {
+        this.departments = departments;
+    }
+
+    public List<DesignationDTO> getDesignations() {
+        return designations;
+    }
+
+    public void setDesignations(List<DesignationDTO> designations) {
+        this.designations = designations;
+    }
+
+    public List<EmployeePage> getEmployeePages() {
+        return employeePages;
+    }
+
+    public void setEmployeePages(List<EmployeePage> employeePages) {
+        this.employeePages = employeePages;
+    }
+
+    // one cached page of GET /api/employees; only the ids are kept, the rows are read again on restore
+    public static class EmployeePage {
+        private String key;
+        private int page;
+        private int size;
+        private String sortBy;
+        private String direction;
+        private long totalElements;
+        private List<Long> employeeIds = new ArrayList<>();
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public String getSortBy() {
+            return sortBy;
+        }
+
+        public void setSortBy(String sortBy) {
+            this.sortBy = sortBy;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public void setDirection(String direction) {
+            this.direction = direction;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public void setTotalElements(long totalElements) {
+            this.totalElements = totalElements;
+        }
+
+        public List<Long> getEmployeeIds() {
+            return employeeIds;
+        }
+
+        public void setEmployeeIds(List<Long> employeeIds) {
+            this.employeeIds = employeeIds;
+        }
+    }
+}
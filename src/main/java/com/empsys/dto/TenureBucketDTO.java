@@ -0,0 +1,61 @@
+package com.empsys.dto;
+
+import java.time.LocalDate;
+
+public class TenureBucketDTO {
+    private String label;
+    private int minYears;
+    private Integer maxYears;
+    private LocalDate hiredFrom;
+    private LocalDate hiredTo;
+    private long count;
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public int getMinYears() {
+        return minYears;
+    }
+
+    public void setMinYears(int minYears) {
+        this.minYears = minYears;
+    }
+
+    // null for the open-ended last bucket
+    public Integer getMaxYears() {
+        return maxYears;
+    }
+
+    public void setMaxYears(Integer maxYears) {
+        this.maxYears = maxYears;
+    }
+
+    public LocalDate getHiredFrom() {
+        return hiredFrom;
+    }
+
+    public void setHiredFrom(LocalDate hiredFrom) {
+        this.hiredFrom = hiredFrom;
+    }
+
+    public LocalDate getHiredTo() {
+        return hiredTo;
+    }
+
+    public void setHiredTo(LocalDate hiredTo) {
+        this.hiredTo = hiredTo;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
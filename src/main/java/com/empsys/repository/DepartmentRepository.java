@@ -2,9 +2,12 @@ package com.empsys.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 import com.empsys.entity.*;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    List<Department> findByDeptNameContainingIgnoreCase(String keyword);
 }
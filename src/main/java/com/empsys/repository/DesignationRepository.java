@@ -2,8 +2,9 @@ package com.empsys.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.empsys.entity.*;
+import java.util.List;
 
 public interface DesignationRepository extends JpaRepository<Designation, Long> {
-	
-	
+
+	List<Designation> findByDesigNameContainingIgnoreCase(String keyword);
 }
\ No newline at end of file
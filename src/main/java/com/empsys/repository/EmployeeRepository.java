@@ -1,11 +1,17 @@
 package com.empsys.repository;
 
+import com.empsys.entity.Department;
+import com.empsys.entity.Designation;
 import com.empsys.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
@@ -18,4 +24,48 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
            "LOWER(e.department.deptName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(e.designation.desigName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Employee> searchEmployees(String keyword, Pageable pageable);
+
+    // full load for the in-memory read model, department and designation in the same query
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.department LEFT JOIN FETCH e.designation")
+    List<Employee> findAllWithReferences();
+
+    // id, email and phone of every employee, for the duplicate index
+    @Query("SELECT e.empId, e.email, e.phone FROM Employee e")
+    List<Object[]> findAllContactKeys();
+
+    // id, email and phone of the employees with ids from..to, for the duplicate report
+    @Query("SELECT e.empId, e.email, e.phone FROM Employee e WHERE e.empId BETWEEN :fromId AND :toId")
+    List<Object[]> findContactKeys(Long fromId, Long toId);
+
+    // one row holding the lowest and highest employee id, both null when there are no employees
+    @Query("SELECT MIN(e.empId), MAX(e.empId) FROM Employee e")
+    List<Object[]> findIdBounds();
+
+    @Query("SELECT MAX(e.empId) FROM Employee e")
+    Long findMaxEmpId();
+
+    // single-statement update, returns the number of rows changed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.firstName = :firstName, e.lastName = :lastName, e.email = :email, " +
+           "e.phone = :phone, e.hireDate = :hireDate, e.department = :department, e.designation = :designation " +
+           "WHERE e.empId = :empId")
+    int updateEmployee(Long empId, String firstName, String lastName, String email, String phone, Date hireDate,
+                       Department department, Designation designation);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Employee e WHERE e.empId = :empId")
+    int deleteEmployee(Long empId);
+
+    // id and hire date of every employee, for the hire-date index
+    @Query("SELECT e.empId, e.hireDate FROM Employee e WHERE e.hireDate IS NOT NULL")
+    List<Object[]> findAllHireDates();
+
+    // hired on or after from and before until
+    @Query("SELECT e FROM Employee e WHERE e.hireDate >= :from AND e.hireDate < :until")
+    Page<Employee> findHiredBetween(Date from, Date until, Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM Employee e WHERE e.hireDate >= :from AND e.hireDate < :until")
+    long countHiredBetween(Date from, Date until);
 }
@@ -0,0 +1,64 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.entity.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where employees are stored: the primary database through JPA
+ * ({@link JpaEmployeeStore}) or the shards when {@code empsys.sharding.enabled}
+ * is set ({@link ShardedEmployeeStore}). Exactly one implementation is a bean,
+ * so callers never need to know which storage mode is configured.
+ */
+public interface EmployeeStore {
+
+    Optional<EmployeeDTO> findById(Long empId);
+
+    // in no particular order, ids that do not exist are skipped
+    List<EmployeeDTO> findAllById(Collection<Long> empIds);
+
+    // assigns the employee id and returns the same dto
+    EmployeeDTO insert(EmployeeDTO dto);
+
+    // false if the employee does not exist
+    boolean update(EmployeeDTO dto);
+
+    // false if the employee does not exist
+    boolean deleteById(Long empId);
+
+    long count();
+
+    // null when there are no employees
+    Long findMaxEmpId();
+
+    Page<EmployeeDTO> findAll(Pageable pageable);
+
+    // keyword in any name, email or phone, or in the department or designation name
+    Page<EmployeeDTO> search(String keyword, Pageable pageable);
+
+    // hired on or after from and before until
+    Page<EmployeeDTO> findHiredBetween(Date from, Date until, Pageable pageable);
+
+    long countHiredBetween(Date from, Date until);
+
+    // every employee with its department and designation, for the read model
+    List<Employee> findAllWithReferences();
+
+    // id, email and phone of every employee, for the duplicate index
+    List<Object[]> findAllContactKeys();
+
+    // id and hire date of every employee hired on a known date, for the hire-date index
+    List<Object[]> findAllHireDates();
+
+    // {from, to} id ranges of at most rangeSize ids that together cover every employee
+    List<long[]> idRanges(long rangeSize);
+
+    // id, email and phone of the employees with ids from..to (inclusive)
+    List<Object[]> findContactKeys(long fromId, long toId);
+}
@@ -0,0 +1,154 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.entity.Department;
+import com.empsys.entity.Designation;
+import com.empsys.entity.Employee;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Employees in the primary database, the default storage mode.
+ */
+@Repository
+@ConditionalOnProperty(name = "empsys.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaEmployeeStore implements EmployeeStore {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DesignationRepository designationRepository;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Override
+    public Optional<EmployeeDTO> findById(Long empId) {
+        return employeeRepository.findById(empId).map(this::toDTO);
+    }
+
+    @Override
+    public List<EmployeeDTO> findAllById(Collection<Long> empIds) {
+        return employeeRepository.findAllById(empIds).stream().map(this::toDTO).toList();
+    }
+
+    @Override
+    public EmployeeDTO insert(EmployeeDTO dto) {
+        Employee emp = new Employee();
+        emp.setFirstName(dto.getFirstName());
+        emp.setLastName(dto.getLastName());
+        emp.setEmail(dto.getEmail());
+        emp.setPhone(dto.getPhone());
+        emp.setHireDate(dto.getHireDate());
+        emp.setDepartment(department(dto.getDeptId()));
+        emp.setDesignation(designation(dto.getDesigId()));
+        dto.setEmpId(employeeRepository.save(emp).getEmpId());
+        return dto;
+    }
+
+    @Override
+    public boolean update(EmployeeDTO dto) {
+        return employeeRepository.updateEmployee(dto.getEmpId(), dto.getFirstName(), dto.getLastName(), dto.getEmail(),
+                dto.getPhone(), dto.getHireDate(), department(dto.getDeptId()), designation(dto.getDesigId())) > 0;
+    }
+
+    @Override
+    public boolean deleteById(Long empId) {
+        return employeeRepository.deleteEmployee(empId) > 0;
+    }
+
+    @Override
+    public long count() {
+        return employeeRepository.count();
+    }
+
+    @Override
+    public Long findMaxEmpId() {
+        return employeeRepository.findMaxEmpId();
+    }
+
+    @Override
+    public Page<EmployeeDTO> findAll(Pageable pageable) {
+        return employeeRepository.findAll(pageable).map(this::toDTO);
+    }
+
+    @Override
+    public Page<EmployeeDTO> search(String keyword, Pageable pageable) {
+        return employeeRepository.searchEmployees(keyword, pageable).map(this::toDTO);
+    }
+
+    @Override
+    public Page<EmployeeDTO> findHiredBetween(Date from, Date until, Pageable pageable) {
+        return employeeRepository.findHiredBetween(from, until, pageable).map(this::toDTO);
+    }
+
+    @Override
+    public long countHiredBetween(Date from, Date until) {
+        return employeeRepository.countHiredBetween(from, until);
+    }
+
+    @Override
+    public List<Employee> findAllWithReferences() {
+        return employeeRepository.findAllWithReferences();
+    }
+
+    @Override
+    public List<Object[]> findAllContactKeys() {
+        return employeeRepository.findAllContactKeys();
+    }
+
+    @Override
+    public List<Object[]> findAllHireDates() {
+        return employeeRepository.findAllHireDates();
+    }
+
+    @Override
+    public List<long[]> idRanges(long rangeSize) {
+        Object[] bounds = employeeRepository.findIdBounds().get(0);
+        List<long[]> ranges = new ArrayList<>();
+        if (bounds[0] == null) {
+            return ranges;
+        }
+        long min = ((Number) bounds[0]).longValue();
+        long max = ((Number) bounds[1]).longValue();
+        for (long from = min; from <= max; from += rangeSize) {
+            ranges.add(new long[] { from, Math.min(max, from + rangeSize - 1) });
+        }
+        return ranges;
+    }
+
+    @Override
+    public List<Object[]> findContactKeys(long fromId, long toId) {
+        return employeeRepository.findContactKeys(fromId, toId);
+    }
+
+    // references only, the foreign key is all the employee row needs
+    private Department department(Long deptId) {
+        return deptId != null ? departmentRepository.getReferenceById(deptId) : null;
+    }
+
+    private Designation designation(Long desigId) {
+        return desigId != null ? designationRepository.getReferenceById(desigId) : null;
+    }
+
+    private EmployeeDTO toDTO(Employee emp) {
+        EmployeeDTO dto = modelMapper.map(emp, EmployeeDTO.class);
+        dto.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
+        dto.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
+        return dto;
+    }
+}
@@ -0,0 +1,131 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Non-blocking reads of the employee table over R2DBC.
+ *
+ * Rows are emitted as the subscriber requests them, so a slow HTTP client
+ * throttles the database cursor instead of buffering the result in memory.
+ * Reads always go to the primary database; writes stay on the JPA path.
+ */
+@Repository
+@ConditionalOnProperty(name = "empsys.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "e.emp_id, e.first_name, e.last_name, e.email, e.phone, e.hire_date, e.dept_id, e.desig_id";
+
+    // inner joins like the implicit ones in EmployeeRepository.searchEmployees, so an employee
+    // without a department or designation is never found here either
+    private static final String SEARCH_FROM = " FROM employee e"
+            + " JOIN department d ON d.dept_id = e.dept_id"
+            + " JOIN designation g ON g.desig_id = e.desig_id"
+            + " WHERE (LOWER(e.first_name) LIKE :pattern OR LOWER(e.last_name) LIKE :pattern"
+            + " OR LOWER(e.email) LIKE :pattern OR LOWER(e.phone) LIKE :pattern"
+            + " OR LOWER(d.dept_name) LIKE :pattern OR LOWER(g.desig_name) LIKE :pattern)";
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    // rows fetched per round trip while streaming an export
+    @Value("${empsys.reactive.fetch-size:256}")
+    private int fetchSize;
+
+    public Mono<EmployeeDTO> findById(long empId) {
+        return reactiveDatabaseClient.sql("SELECT " + COLUMNS + " FROM employee e WHERE e.emp_id = :id")
+                .bind("id", empId)
+                .map((row, meta) -> toDTO(row))
+                .one();
+    }
+
+    public Flux<EmployeeDTO> findAll(Pageable pageable) {
+        return reactiveDatabaseClient.sql("SELECT " + COLUMNS + " FROM employee e" + orderAndLimit(pageable))
+                .map((row, meta) -> toDTO(row))
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return reactiveDatabaseClient.sql("SELECT COUNT(*) FROM employee")
+                .map((row, meta) -> row.get(0, Number.class).longValue())
+                .one();
+    }
+
+    public Flux<EmployeeDTO> search(String keyword, Pageable pageable) {
+        return reactiveDatabaseClient.sql("SELECT " + COLUMNS + SEARCH_FROM + orderAndLimit(pageable))
+                .bind("pattern", pattern(keyword))
+                .map((row, meta) -> toDTO(row))
+                .all();
+    }
+
+    public Mono<Long> countSearch(String keyword) {
+        return reactiveDatabaseClient.sql("SELECT COUNT(*)" + SEARCH_FROM)
+                .bind("pattern", pattern(keyword))
+                .map((row, meta) -> row.get(0, Number.class).longValue())
+                .one();
+    }
+
+    // every employee in id order, pulled from the cursor fetchSize rows at a time
+    public Flux<EmployeeDTO> streamAll() {
+        return reactiveDatabaseClient.sql("SELECT " + COLUMNS + " FROM employee e ORDER BY e.emp_id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, meta) -> toDTO(row))
+                .all();
+    }
+
+    private static String orderAndLimit(Pageable pageable) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        String column = ShardedEmployeeRepository.SORT_COLUMNS.get(order.getProperty());
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort employees by '" + order.getProperty() + "'");
+        }
+        String dir = order.isDescending() ? " DESC" : " ASC";
+        String orderBy = "emp_id".equals(column) ? "e.emp_id" + dir : "e." + column + dir + ", e.emp_id" + dir;
+        return " ORDER BY " + orderBy + " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+    }
+
+    private static String pattern(String keyword) {
+        return "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+    }
+
+    private static EmployeeDTO toDTO(Row row) {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setEmpId(row.get("emp_id", Number.class).longValue());
+        dto.setFirstName(row.get("first_name", String.class));
+        dto.setLastName(row.get("last_name", String.class));
+        dto.setEmail(row.get("email", String.class));
+        dto.setPhone(row.get("phone", String.class));
+        dto.setHireDate(toDate(row.get("hire_date")));
+        Number deptId = row.get("dept_id", Number.class);
+        dto.setDeptId(deptId != null ? deptId.longValue() : null);
+        Number desigId = row.get("desig_id", Number.class);
+        dto.setDesigId(desigId != null ? desigId.longValue() : null);
+        return dto;
+    }
+
+    // hire_date is DATE in db_script.sql but TIMESTAMP when Hibernate generates the schema
+    private static Date toDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return new Date(java.sql.Date.valueOf(date).getTime());
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return null;
+    }
+}
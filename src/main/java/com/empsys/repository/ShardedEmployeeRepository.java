@@ -0,0 +1,647 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Employee storage partitioned across several datasources.
+ *
+ * Every shard owns a contiguous block of employee ids, so a lookup by id always
+ * goes to exactly one shard. New rows are placed by department
+ * ({@code department} strategy) or into the first shard whose id block still
+ * has room ({@code id-range} strategy); a row stays on its shard when it is
+ * updated. Lists, searches and counts are fanned out to all shards in parallel
+ * and merged in sort order. Ids are allocated from a sequence table on each
+ * shard, so several application instances can write to the same shards.
+ *
+ * Text columns are sorted by their lower-cased value in a binary collation, on
+ * the shards and in the merge alike, so pages come out right whatever collation
+ * the shard tables were created with. Only H2 and MySQL 8 shards are supported.
+ * Every shard returns the first offset + size rows of a page, so pages starting
+ * past {@code maxPageOffset} are rejected with 400 instead.
+ *
+ * Shard queries run on a pool sized to the shard connection pools, with a
+ * bounded queue; a request that finds the queue full fails with 503.
+ *
+ * A shard only enforces {@code email} uniqueness for its own rows, so emails are
+ * also claimed in {@code employee_email_key} on the primary database before a
+ * row is written, and an email held by another employee is rejected with 409.
+ * {@link #syncEmailKeys()} adds the keys of rows written before the table
+ * existed and refuses to start if two shards already hold the same email.
+ */
+public class ShardedEmployeeRepository implements Closeable {
+
+    private static final String COLUMNS = "emp_id, first_name, last_name, email, phone, hire_date, dept_id, desig_id";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS employee ("
+            + "emp_id BIGINT PRIMARY KEY, "
+            + "first_name VARCHAR(100) NOT NULL, "
+            + "last_name VARCHAR(100), "
+            + "email VARCHAR(150) UNIQUE NOT NULL, "
+            + "phone VARCHAR(20), "
+            + "hire_date DATE, "
+            + "dept_id BIGINT, "
+            + "desig_id BIGINT)";
+
+    // one row (id = 1) holding the next employee id to hand out on this shard
+    private static final String CREATE_ID_SEQUENCE = "CREATE TABLE IF NOT EXISTS employee_id_seq ("
+            + "id INT PRIMARY KEY, "
+            + "next_id BIGINT NOT NULL)";
+
+    private static final Set<String> TEXT_COLUMNS = Set.of("first_name", "last_name", "email");
+
+    // also used by ReactiveEmployeeRepository
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+            "empId", "emp_id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email",
+            "hireDate", "hire_date");
+
+    private static final RowMapper<EmployeeDTO> ROW_MAPPER = (rs, rowNum) -> {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setEmpId(rs.getLong("emp_id"));
+        dto.setFirstName(rs.getString("first_name"));
+        dto.setLastName(rs.getString("last_name"));
+        dto.setEmail(rs.getString("email"));
+        dto.setPhone(rs.getString("phone"));
+        java.sql.Date hireDate = rs.getDate("hire_date");
+        dto.setHireDate(hireDate != null ? new Date(hireDate.getTime()) : null);
+        dto.setDeptId(rs.getObject("dept_id") != null ? rs.getLong("dept_id") : null);
+        dto.setDesigId(rs.getObject("desig_id") != null ? rs.getLong("desig_id") : null);
+        return dto;
+    };
+
+    private static final RowMapper<Object[]> CONTACT_KEY_MAPPER =
+            (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2), rs.getString(3) };
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final boolean byDepartment;
+    private final long idBlockSize;
+    private final AtomicInteger fillShard = new AtomicInteger();
+    private final JdbcTemplate primary;
+    private final long maxPageOffset;
+    private final ThreadPoolExecutor fanOut;
+    // SQL sort key of a text column and the matching Java order, per shard database
+    private final String textSortKey;
+    private final Comparator<String> textOrder;
+
+    /**
+     * @param primary           database holding {@code employee_email_key}
+     * @param fanOutThreads     threads running shard queries, at most one per shard connection is useful
+     * @param fanOutQueueLimit  shard queries that may wait for a thread before requests are turned away
+     */
+    public ShardedEmployeeRepository(List<DataSource> dataSources, JdbcTemplate primary, String strategy, long idBlockSize,
+                                     long maxPageOffset, int fanOutThreads, int fanOutQueueLimit) {
+        if (!"department".equals(strategy) && !"id-range".equals(strategy)) {
+            throw new IllegalArgumentException("Unknown sharding strategy '" + strategy + "'");
+        }
+        this.dataSources = dataSources;
+        for (DataSource ds : dataSources) {
+            shards.add(new JdbcTemplate(ds));
+        }
+        this.byDepartment = "department".equals(strategy);
+        String product = databaseProduct();
+        if ("H2".equals(product)) {
+            // H2 compares strings by UTF-16 code unit, like String.compareTo
+            this.textSortKey = "LOWER(%s)";
+            this.textOrder = Comparator.naturalOrder();
+        } else if ("MySQL".equals(product)) {
+            // NO PAD binary collation: code point order, trailing spaces significant
+            this.textSortKey = "CONVERT(LOWER(%s) USING utf8mb4) COLLATE utf8mb4_0900_bin";
+            this.textOrder = ShardedEmployeeRepository::compareCodePoints;
+        } else {
+            throw new IllegalStateException("Employee shards must be H2 or MySQL databases, found " + product);
+        }
+        this.idBlockSize = idBlockSize;
+        this.primary = primary;
+        this.maxPageOffset = maxPageOffset;
+        // shared by all requests; the queue bound keeps a slow shard from piling up work without limit
+        this.fanOut = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueLimit), r -> {
+                    Thread t = new Thread(r, "employee-shard-query");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.fanOut.allowCoreThreadTimeOut(true);
+    }
+
+    public void initSchema() {
+        shards.forEach(shard -> {
+            shard.execute(CREATE_TABLE);
+            shard.execute(CREATE_ID_SEQUENCE);
+        });
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // shard k owns ids k * idBlockSize + 1 .. (k + 1) * idBlockSize; -1 if no shard owns the id
+    public int shardForId(long empId) {
+        if (empId < 1 || (empId - 1) / idBlockSize >= shards.size()) {
+            return -1;
+        }
+        return (int) ((empId - 1) / idBlockSize);
+    }
+
+    // an id outside every block cannot exist, like a missing row on the JPA path
+    public Optional<EmployeeDTO> findById(Long empId) {
+        int shard = shardForId(empId);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        List<EmployeeDTO> rows = shards.get(shard)
+                .query("SELECT " + COLUMNS + " FROM employee WHERE emp_id = ?", ROW_MAPPER, empId);
+        return rows.stream().findFirst();
+    }
+
+    // one query per shard that owns any of the ids; ids outside every block are skipped
+    public List<EmployeeDTO> findAllById(Collection<Long> empIds) {
+        Map<Integer, List<Long>> byShard = new HashMap<>();
+        for (Long empId : empIds) {
+            int shard = shardForId(empId);
+            if (shard >= 0) {
+                byShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(empId);
+            }
+        }
+        List<CompletableFuture<List<EmployeeDTO>>> futures = new ArrayList<>();
+        byShard.forEach((shard, ids) -> futures.add(submit(() -> shards.get(shard).query(
+                "SELECT " + COLUMNS + " FROM employee WHERE emp_id IN ("
+                        + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                ROW_MAPPER, ids.toArray()))));
+        List<EmployeeDTO> rows = new ArrayList<>();
+        futures.forEach(future -> rows.addAll(future.join()));
+        return rows;
+    }
+
+    // assigns the employee id from the id block of the shard the row is placed on
+    public EmployeeDTO insert(EmployeeDTO dto) {
+        int shard = placementFor(dto);
+        long empId = nextId(shard);
+        while (empId < 0) {
+            if (byDepartment) {
+                throw new IllegalStateException("Employee shard " + shard + " has used up its id block");
+            }
+            // id-range: move on to the next shard once this one's block is used up
+            fillShard.compareAndSet(shard, shard + 1);
+            shard = placementFor(dto);
+            empId = nextId(shard);
+        }
+        dto.setEmpId(empId);
+        String email = emailKey(dto.getEmail());
+        claimEmail(email, empId);
+        try {
+            shards.get(shard).update("INSERT INTO employee (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    dto.getEmpId(), dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getPhone(),
+                    sqlDate(dto.getHireDate()), dto.getDeptId(), dto.getDesigId());
+        } catch (RuntimeException ex) {
+            releaseEmail(email, empId);
+            throw ex;
+        }
+        return dto;
+    }
+
+    public boolean update(EmployeeDTO dto) {
+        int shard = shardForId(dto.getEmpId());
+        if (shard < 0) {
+            return false;
+        }
+        String email = emailKey(dto.getEmail());
+        boolean claimed = claimEmail(email, dto.getEmpId());
+        boolean updated;
+        try {
+            updated = shards.get(shard).update(
+                    "UPDATE employee SET first_name = ?, last_name = ?, email = ?, phone = ?, hire_date = ?, "
+                            + "dept_id = ?, desig_id = ? WHERE emp_id = ?",
+                    dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getPhone(),
+                    sqlDate(dto.getHireDate()), dto.getDeptId(), dto.getDesigId(), dto.getEmpId()) > 0;
+        } catch (RuntimeException ex) {
+            if (claimed) {
+                releaseEmail(email, dto.getEmpId());
+            }
+            throw ex;
+        }
+        if (!updated) {
+            if (claimed) {
+                releaseEmail(email, dto.getEmpId());
+            }
+            return false;
+        }
+        // the previous email is free once the row no longer uses it
+        primary.update("DELETE FROM employee_email_key WHERE emp_id = ? AND email <> ?", dto.getEmpId(), email);
+        return true;
+    }
+
+    // the row goes first; a key left behind would keep its email taken, a missing one is added back on the next start
+    public boolean deleteById(Long empId) {
+        int shard = shardForId(empId);
+        if (shard < 0 || shards.get(shard).update("DELETE FROM employee WHERE emp_id = ?", empId) == 0) {
+            return false;
+        }
+        primary.update("DELETE FROM employee_email_key WHERE emp_id = ?", empId);
+        return true;
+    }
+
+    /**
+     * Claims the email of every shard row that has no key yet, which covers rows written
+     * before {@code employee_email_key} existed or by a write that failed half way.
+     * Throws if the same email is held by two employees. Returns the number of keys added.
+     */
+    public int syncEmailKeys() {
+        Map<String, Long> owners = new HashMap<>();
+        primary.query("SELECT email, emp_id FROM employee_email_key",
+                rs -> { owners.put(rs.getString(1), rs.getLong(2)); });
+        List<String> clashes = new ArrayList<>();
+        List<Object[]> missing = new ArrayList<>();
+        for (Object[] row : findAllContactKeys()) {
+            String email = emailKey((String) row[1]);
+            long empId = (Long) row[0];
+            Long owner = owners.putIfAbsent(email, empId);
+            if (owner == null) {
+                missing.add(new Object[] { email, empId });
+            } else if (owner != empId) {
+                clashes.add(email + " (employees " + owner + " and " + empId + ")");
+            }
+        }
+        if (!clashes.isEmpty()) {
+            throw new IllegalStateException(clashes.size() + " emails are used by more than one employee across the shards, "
+                    + "make them unique before starting: " + String.join(", ", clashes.subList(0, Math.min(10, clashes.size()))));
+        }
+        primary.batchUpdate("INSERT INTO employee_email_key (email, emp_id) VALUES (?, ?)", missing);
+        return missing.size();
+    }
+
+    public long count() {
+        return scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM employee", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Long findMaxEmpId() {
+        return scatter(shard -> shard.queryForObject("SELECT MAX(emp_id) FROM employee", Long.class))
+                .stream().filter(Objects::nonNull).max(Long::compare).orElse(null);
+    }
+
+    public Page<EmployeeDTO> findAll(Pageable pageable) {
+        return findPage("", new Object[0], pageable);
+    }
+
+    // department and designation names live on the primary datasource, so the caller resolves
+    // them to ids first. Rows without a department or designation never match, which is what
+    // the inner joins of EmployeeRepository.searchEmployees do; a dept_id or desig_id left
+    // behind by a deleted department or designation still matches, there is no join to drop it.
+    public Page<EmployeeDTO> search(String keyword, Collection<Long> deptIds, Collection<Long> desigIds, Pageable pageable) {
+        String like = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+        List<Object> params = new ArrayList<>(List.of(like, like, like, like));
+        StringBuilder where = new StringBuilder(" WHERE dept_id IS NOT NULL AND desig_id IS NOT NULL"
+                + " AND (LOWER(first_name) LIKE ? OR LOWER(last_name) LIKE ?"
+                + " OR LOWER(email) LIKE ? OR LOWER(phone) LIKE ?");
+        appendIn(where, params, "dept_id", deptIds);
+        appendIn(where, params, "desig_id", desigIds);
+        where.append(")");
+        return findPage(where.toString(), params.toArray(), pageable);
+    }
+
+    // hired on or after from and before until
+    public Page<EmployeeDTO> findHiredBetween(Date from, Date until, Pageable pageable) {
+        return findPage(" WHERE hire_date >= ? AND hire_date < ?", new Object[] { sqlDate(from), sqlDate(until) }, pageable);
+    }
+
+    public long countHiredBetween(Date from, Date until) {
+        return scatter(shard -> shard.queryForObject("SELECT COUNT(*) FROM employee WHERE hire_date >= ? AND hire_date < ?",
+                Long.class, sqlDate(from), sqlDate(until)))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    // every row of every shard, ordered by id
+    public List<EmployeeDTO> findAll() {
+        List<EmployeeDTO> all = new ArrayList<>();
+        // shard blocks are in id order, so concatenating per-shard id order keeps it sorted
+        scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM employee ORDER BY emp_id", ROW_MAPPER))
+                .forEach(all::addAll);
+        return all;
+    }
+
+    // id, email and phone of every row of every shard
+    public List<Object[]> findAllContactKeys() {
+        List<Object[]> all = new ArrayList<>();
+        scatter(shard -> shard.query("SELECT emp_id, email, phone FROM employee", CONTACT_KEY_MAPPER))
+                .forEach(all::addAll);
+        return all;
+    }
+
+    // id and hire date of every row of every shard that has a hire date
+    public List<Object[]> findAllHireDates() {
+        List<Object[]> all = new ArrayList<>();
+        scatter(shard -> shard.query("SELECT emp_id, hire_date FROM employee WHERE hire_date IS NOT NULL",
+                (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getDate(2) }))
+                .forEach(all::addAll);
+        return all;
+    }
+
+    // {from, to} ranges of at most rangeSize ids, split per shard so each range is read from one shard
+    public List<long[]> idRanges(long rangeSize) {
+        List<long[]> bounds = scatter(shard -> shard.queryForObject("SELECT MIN(emp_id), MAX(emp_id) FROM employee",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[] { rs.getLong(1), rs.getLong(2) }));
+        List<long[]> ranges = new ArrayList<>();
+        for (long[] shardBounds : bounds) {
+            if (shardBounds == null) {
+                continue;
+            }
+            for (long from = shardBounds[0]; from <= shardBounds[1]; from += rangeSize) {
+                ranges.add(new long[] { from, Math.min(shardBounds[1], from + rangeSize - 1) });
+            }
+        }
+        return ranges;
+    }
+
+    // id, email and phone of the rows with ids from..to, read from the shards whose blocks overlap the range
+    public List<Object[]> findContactKeys(long fromId, long toId) {
+        List<Object[]> rows = new ArrayList<>();
+        long firstShard = Math.max(0, (fromId - 1) / idBlockSize);
+        long lastShard = Math.min(shards.size() - 1, (toId - 1) / idBlockSize);
+        for (long shard = firstShard; shard <= lastShard; shard++) {
+            rows.addAll(shards.get((int) shard).query("SELECT emp_id, email, phone FROM employee WHERE emp_id BETWEEN ? AND ?",
+                    CONTACT_KEY_MAPPER, fromId, toId));
+        }
+        return rows;
+    }
+
+    private Page<EmployeeDTO> findPage(String where, Object[] params, Pageable pageable) {
+        if (pageable.getOffset() > maxPageOffset) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pages starting past row " + maxPageOffset
+                    + " are not available, narrow the search or reverse the sort");
+        }
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.asc("empId");
+        String column = SORT_COLUMNS.get(order.getProperty());
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort employees by '" + order.getProperty() + "'");
+        }
+        String dir = order.isDescending() ? " DESC" : " ASC";
+        String key = TEXT_COLUMNS.contains(column) ? String.format(textSortKey, column) : column;
+        String orderBy = "emp_id".equals(column) ? column + dir : key + dir + ", emp_id" + dir;
+
+        // each shard returns its first offset + size rows; the global page is among them
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        String sql = "SELECT " + COLUMNS + " FROM employee" + where + " ORDER BY " + orderBy + " LIMIT " + limit;
+
+        CompletableFuture<List<List<EmployeeDTO>>> rows = scatterAsync(shard -> shard.query(sql, ROW_MAPPER, params));
+        CompletableFuture<List<Long>> counts = scatterAsync(
+                shard -> shard.queryForObject("SELECT COUNT(*) FROM employee" + where, Long.class, params));
+
+        List<EmployeeDTO> content = merge(rows.join(), comparator(order), pageable.getOffset(), pageable.getPageSize());
+        long total = counts.join().stream().mapToLong(Long::longValue).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // k-way merge of per-shard sorted lists, skipping the first offset rows
+    private static List<EmployeeDTO> merge(List<List<EmployeeDTO>> perShard, Comparator<EmployeeDTO> order,
+                                           long offset, int size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        for (List<EmployeeDTO> rows : perShard) {
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor(rows));
+            }
+        }
+        List<EmployeeDTO> page = new ArrayList<>(size);
+        long position = 0;
+        while (!heads.isEmpty() && page.size() < size) {
+            Cursor head = heads.poll();
+            if (position++ >= offset) {
+                page.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    // mirrors the SQL ORDER BY: lower-cased strings in textOrder, nulls first ascending, ties by id
+    private Comparator<EmployeeDTO> comparator(Sort.Order order) {
+        Comparator<EmployeeDTO> byId = Comparator.comparing(EmployeeDTO::getEmpId);
+        Comparator<EmployeeDTO> comparator;
+        switch (order.getProperty()) {
+            case "firstName" -> comparator = byString(EmployeeDTO::getFirstName).thenComparing(byId);
+            case "lastName" -> comparator = byString(EmployeeDTO::getLastName).thenComparing(byId);
+            case "email" -> comparator = byString(EmployeeDTO::getEmail).thenComparing(byId);
+            case "hireDate" -> comparator = Comparator.comparing(EmployeeDTO::getHireDate,
+                    Comparator.nullsFirst(Comparator.<Date>naturalOrder())).thenComparing(byId);
+            default -> comparator = byId;
+        }
+        return order.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    private Comparator<EmployeeDTO> byString(Function<EmployeeDTO, String> field) {
+        return Comparator.comparing(field.andThen(value -> value != null ? value.toLowerCase(Locale.ROOT) : null),
+                Comparator.nullsFirst(textOrder));
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    // every shard must run the same database, the sort key SQL is shared
+    private String databaseProduct() {
+        Set<String> products = new HashSet<>();
+        for (JdbcTemplate shard : shards) {
+            products.add(shard.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        }
+        if (products.size() != 1) {
+            throw new IllegalStateException("Employee shards run different databases: " + products);
+        }
+        return products.iterator().next();
+    }
+
+    private int placementFor(EmployeeDTO dto) {
+        if (byDepartment) {
+            return dto.getDeptId() != null ? (int) Math.floorMod(dto.getDeptId(), (long) shards.size()) : 0;
+        }
+        // id-range: keep filling the current shard until its id block is used up
+        int shard = fillShard.get();
+        if (shard >= shards.size()) {
+            throw new IllegalStateException("All employee shards have used up their id blocks");
+        }
+        return shard;
+    }
+
+    // advances the shard's sequence row with a compare-and-set update, so concurrent writers
+    // (threads or application instances) never get the same id; -1 once the id block is used up
+    private long nextId(int shard) {
+        JdbcTemplate db = shards.get(shard);
+        long blockEnd = (shard + 1L) * idBlockSize;
+        while (true) {
+            long next = currentNextId(shard);
+            if (next > blockEnd) {
+                return -1;
+            }
+            if (db.update("UPDATE employee_id_seq SET next_id = ? WHERE id = 1 AND next_id = ?", next + 1, next) == 1) {
+                return next;
+            }
+        }
+    }
+
+    private long currentNextId(int shard) {
+        JdbcTemplate db = shards.get(shard);
+        List<Long> next = db.queryForList("SELECT next_id FROM employee_id_seq WHERE id = 1", Long.class);
+        if (!next.isEmpty()) {
+            return next.get(0);
+        }
+        // first id on this shard: start after the highest id already in its block
+        long blockStart = shard * idBlockSize;
+        Long max = db.queryForObject("SELECT MAX(emp_id) FROM employee WHERE emp_id > ? AND emp_id <= ?",
+                Long.class, blockStart, blockStart + idBlockSize);
+        try {
+            db.update("INSERT INTO employee_id_seq (id, next_id) VALUES (1, ?)", (max != null ? max : blockStart) + 1);
+        } catch (DuplicateKeyException ex) {
+            // another instance seeded it first
+        }
+        return db.queryForObject("SELECT next_id FROM employee_id_seq WHERE id = 1", Long.class);
+    }
+
+    // true if the email was free and now belongs to empId, false if empId already held it
+    private boolean claimEmail(String email, long empId) {
+        if (email == null) {
+            // the shard's NOT NULL constraint rejects the row
+            return false;
+        }
+        while (true) {
+            try {
+                primary.update("INSERT INTO employee_email_key (email, emp_id) VALUES (?, ?)", email, empId);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                List<Long> owner = primary.queryForList("SELECT emp_id FROM employee_email_key WHERE email = ?",
+                        Long.class, email);
+                if (owner.isEmpty()) {
+                    // released since the insert failed, try again
+                    continue;
+                }
+                if (owner.get(0) == empId) {
+                    return false;
+                }
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Email '" + email + "' is already used by employee " + owner.get(0));
+            }
+        }
+    }
+
+    private void releaseEmail(String email, long empId) {
+        if (email != null) {
+            primary.update("DELETE FROM employee_email_key WHERE email = ? AND emp_id = ?", email, empId);
+        }
+    }
+
+    // matches EmployeeDuplicateIndex.normalizeEmail
+    private static String emailKey(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private <T> List<T> scatter(Function<JdbcTemplate, T> query) {
+        return scatterAsync(query).join();
+    }
+
+    private <T> CompletableFuture<List<T>> scatterAsync(Function<JdbcTemplate, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (JdbcTemplate shard : shards) {
+            futures.add(submit(() -> query.apply(shard)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, fanOut);
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Employee shards are busy, try again later");
+        }
+    }
+
+    private static void appendIn(StringBuilder where, List<Object> params, String column, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        where.append(" OR ").append(column).append(" IN (");
+        where.append(String.join(", ", Collections.nCopies(ids.size(), "?")));
+        where.append(")");
+        params.addAll(ids);
+    }
+
+    private static java.sql.Date sqlDate(Date date) {
+        return date != null ? new java.sql.Date(date.getTime()) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fanOut.shutdownNow();
+        for (DataSource ds : dataSources) {
+            if (ds instanceof Closeable) {
+                ((Closeable) ds).close();
+            }
+        }
+    }
+
+    private static final class Cursor {
+        private final List<EmployeeDTO> rows;
+        private int index;
+
+        Cursor(List<EmployeeDTO> rows) {
+            this.rows = rows;
+        }
+
+        EmployeeDTO current() {
+            return rows.get(index);
+        }
+
+        boolean advance() {
+            return ++index < rows.size();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.entity.Department;
+import com.empsys.entity.Designation;
+import com.empsys.entity.Employee;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Employees in the shards of {@link ShardedEmployeeRepository}. Departments and
+ * designations stay in the primary database, so their names are looked up there.
+ */
+@Repository
+@ConditionalOnProperty(name = "empsys.sharding.enabled", havingValue = "true")
+public class ShardedEmployeeStore implements EmployeeStore {
+
+    @Autowired
+    private ShardedEmployeeRepository shardedEmployeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DesignationRepository designationRepository;
+
+    @Override
+    public Optional<EmployeeDTO> findById(Long empId) {
+        return shardedEmployeeRepository.findById(empId);
+    }
+
+    @Override
+    public List<EmployeeDTO> findAllById(Collection<Long> empIds) {
+        return shardedEmployeeRepository.findAllById(empIds);
+    }
+
+    @Override
+    public EmployeeDTO insert(EmployeeDTO dto) {
+        return shardedEmployeeRepository.insert(dto);
+    }
+
+    @Override
+    public boolean update(EmployeeDTO dto) {
+        return shardedEmployeeRepository.update(dto);
+    }
+
+    @Override
+    public boolean deleteById(Long empId) {
+        return shardedEmployeeRepository.deleteById(empId);
+    }
+
+    @Override
+    public long count() {
+        return shardedEmployeeRepository.count();
+    }
+
+    @Override
+    public Long findMaxEmpId() {
+        return shardedEmployeeRepository.findMaxEmpId();
+    }
+
+    @Override
+    public Page<EmployeeDTO> findAll(Pageable pageable) {
+        return shardedEmployeeRepository.findAll(pageable);
+    }
+
+    // the shards only hold department and designation ids, so matching names are resolved to ids first
+    @Override
+    public Page<EmployeeDTO> search(String keyword, Pageable pageable) {
+        List<Long> deptIds = departmentRepository.findByDeptNameContainingIgnoreCase(keyword)
+                .stream().map(Department::getDeptId).toList();
+        List<Long> desigIds = designationRepository.findByDesigNameContainingIgnoreCase(keyword)
+                .stream().map(Designation::getDesigId).toList();
+        return shardedEmployeeRepository.search(keyword, deptIds, desigIds, pageable);
+    }
+
+    @Override
+    public Page<EmployeeDTO> findHiredBetween(Date from, Date until, Pageable pageable) {
+        return shardedEmployeeRepository.findHiredBetween(from, until, pageable);
+    }
+
+    @Override
+    public long countHiredBetween(Date from, Date until) {
+        return shardedEmployeeRepository.countHiredBetween(from, until);
+    }
+
+    @Override
+    public List<Employee> findAllWithReferences() {
+        Map<Long, Department> departments = departmentRepository.findAll().stream()
+                .collect(Collectors.toMap(Department::getDeptId, Function.identity()));
+        Map<Long, Designation> designations = designationRepository.findAll().stream()
+                .collect(Collectors.toMap(Designation::getDesigId, Function.identity()));
+        List<EmployeeDTO> rows = shardedEmployeeRepository.findAll();
+        List<Employee> employees = new ArrayList<>(rows.size());
+        for (EmployeeDTO dto : rows) {
+            Employee emp = new Employee();
+            emp.setEmpId(dto.getEmpId());
+            emp.setFirstName(dto.getFirstName());
+            emp.setLastName(dto.getLastName());
+            emp.setEmail(dto.getEmail());
+            emp.setPhone(dto.getPhone());
+            emp.setHireDate(dto.getHireDate());
+            emp.setDepartment(dto.getDeptId() != null ? departments.get(dto.getDeptId()) : null);
+            emp.setDesignation(dto.getDesigId() != null ? designations.get(dto.getDesigId()) : null);
+            employees.add(emp);
+        }
+        return employees;
+    }
+
+    @Override
+    public List<Object[]> findAllContactKeys() {
+        return shardedEmployeeRepository.findAllContactKeys();
+    }
+
+    @Override
+    public List<Object[]> findAllHireDates() {
+        return shardedEmployeeRepository.findAllHireDates();
+    }
+
+    @Override
+    public List<long[]> idRanges(long rangeSize) {
+        return shardedEmployeeRepository.idRanges(rangeSize);
+    }
+
+    @Override
+    public List<Object[]> findContactKeys(long fromId, long toId) {
+        return shardedEmployeeRepository.findContactKeys(fromId, toId);
+    }
+}
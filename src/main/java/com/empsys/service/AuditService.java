@@ -0,0 +1,358 @@
+package com.empsys.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind audit trail for employee, department and designation mutations.
+ *
+ * Mutations only compute a before/after diff and enqueue it; a single background
+ * writer drains the queue and inserts the events into {@code audit_log} with
+ * batched JDBC. In {@code sync} durability mode the caller waits until the batch
+ * holding its event has been written (group commit) instead of returning
+ * immediately.
+ *
+ * A failed batch is retried with exponential backoff. When the retries run out
+ * the events are appended to a local spill file, which is loaded into
+ * {@code audit_log} on the next start, and sync callers get the failure.
+ */
+@Service
+public class AuditService {
+
+    public static final String EMPLOYEE = "EMPLOYEE";
+    public static final String DEPARTMENT = "DEPARTMENT";
+    public static final String DESIGNATION = "DESIGNATION";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (entity_type, entity_id, action, changes, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${empsys.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${empsys.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${empsys.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${empsys.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${empsys.audit.durability:async}")
+    private String durability;
+
+    @Value("${empsys.audit.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${empsys.audit.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    @Value("${empsys.audit.spill-path:data/audit-spill.jsonl}")
+    private String spillPath;
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService writer;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "audit-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.execute(this::loadSpillQuietly);
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        writer.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        // drain whatever is still buffered so a clean shutdown loses nothing
+        flush();
+    }
+
+    public void recordCreate(String entityType, Long entityId, Object after) {
+        record(entityType, entityId, "CREATE", null, after);
+    }
+
+    public void recordUpdate(String entityType, Long entityId, Object before, Object after) {
+        record(entityType, entityId, "UPDATE", before, after);
+    }
+
+    public void recordDelete(String entityType, Long entityId, Object before) {
+        record(entityType, entityId, "DELETE", before, null);
+    }
+
+    private void record(String entityType, Long entityId, String action, Object before, Object after) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Map<String, Object>> changes = diff(before, after);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        boolean sync = "sync".equalsIgnoreCase(durability);
+        AuditEvent event = new AuditEvent(entityType, entityId, action, changes,
+                System.currentTimeMillis(), sync ? new CompletableFuture<>() : null);
+        queue.offer(event);
+
+        // queue is full: the caller pays for one batch instead of growing the buffer
+        if (queued.incrementAndGet() > queueCapacity) {
+            flushBatch();
+        }
+
+        // the queue is FIFO, so this only writes the batches up to and including our event
+        while (sync && !event.written.isDone()) {
+            flushBatch();
+        }
+        if (sync && event.written.isCompletedExceptionally()) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "The change was saved but its audit record could not be written");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> diff(Object before, Object after) {
+        Map<String, Object> oldValues = before != null ? objectMapper.convertValue(before, Map.class) : Collections.emptyMap();
+        Map<String, Object> newValues = after != null ? objectMapper.convertValue(after, Map.class) : Collections.emptyMap();
+
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (String field : union(oldValues, newValues)) {
+            Object oldValue = oldValues.get(field);
+            Object newValue = newValues.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("old", oldValue);
+                change.put("new", newValue);
+                changes.put(field, change);
+            }
+        }
+        return changes;
+    }
+
+    private static List<String> union(Map<String, Object> a, Map<String, Object> b) {
+        List<String> fields = new ArrayList<>(a.keySet());
+        for (String field : b.keySet()) {
+            if (!a.containsKey(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    void flush() {
+        while (!queue.isEmpty()) {
+            flushBatch();
+        }
+    }
+
+    // writes at most one batch
+    private void flushBatch() {
+        flushLock.lock();
+        try {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            AuditEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(event);
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // called with flushLock held, so batches and the spill file are written by one thread at a time
+    private void writeBatch(List<AuditEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditEvent e : batch) {
+            rows.add(new Object[] { e.entityType, e.entityId, e.action, toJson(e.changes), new Timestamp(e.createdAt) });
+        }
+        RuntimeException failure = null;
+        long backoff = retryBackoffMs;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0 && !sleep(backoff)) {
+                break;
+            }
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                for (AuditEvent e : batch) {
+                    if (e.written != null) {
+                        e.written.complete(null);
+                    }
+                }
+                return;
+            } catch (RuntimeException ex) {
+                failure = ex;
+                backoff *= 2;
+            }
+        }
+
+        try {
+            spill(batch);
+            log.error("Failed to write {} audit events, kept them in {}", batch.size(), spillPath, failure);
+        } catch (IOException ex) {
+            failure.addSuppressed(ex);
+            log.error("Failed to write {} audit events, they are lost", batch.size(), failure);
+        }
+        for (AuditEvent e : batch) {
+            if (e.written != null) {
+                e.written.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // one JSON object per line
+    private void spill(List<AuditEvent> batch) throws IOException {
+        Path path = Paths.get(spillPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditEvent e : batch) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("entityType", e.entityType);
+                line.put("entityId", e.entityId);
+                line.put("action", e.action);
+                line.put("changes", e.changes);
+                line.put("createdAt", e.createdAt);
+                out.write(objectMapper.writeValueAsString(line));
+                out.newLine();
+            }
+        }
+    }
+
+    // inserts the events spilled by an earlier run, then deletes the file
+    @SuppressWarnings("unchecked")
+    void loadSpill() throws IOException {
+        Path path = Paths.get(spillPath);
+        flushLock.lock();
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            lines.removeIf(String::isBlank);
+            List<Object[]> rows = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                Map<String, Object> e = objectMapper.readValue(line, Map.class);
+                Number entityId = (Number) e.get("entityId");
+                rows.add(new Object[] { e.get("entityType"), entityId != null ? entityId.longValue() : null, e.get("action"),
+                        objectMapper.writeValueAsString(e.get("changes")),
+                        new Timestamp(((Number) e.get("createdAt")).longValue()) });
+            }
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+                } catch (RuntimeException ex) {
+                    // keep only what was not inserted, so the next start does not insert it twice
+                    Files.write(path, lines.subList(from, lines.size()), StandardCharsets.UTF_8);
+                    throw ex;
+                }
+            }
+            Files.delete(path);
+            log.info("Loaded {} spilled audit events from {}", rows.size(), spillPath);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void loadSpillQuietly() {
+        try {
+            loadSpill();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not load spilled audit events from {}, keeping the file", spillPath, ex);
+        }
+    }
+
+    private String toJson(Map<String, Map<String, Object>> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize audit changes", ex);
+        }
+    }
+
+    private static final class AuditEvent {
+        final String entityType;
+        final Long entityId;
+        final String action;
+        final Map<String, Map<String, Object>> changes;
+        final long createdAt;
+        final CompletableFuture<Void> written;
+
+        AuditEvent(String entityType, Long entityId, String action, Map<String, Map<String, Object>> changes,
+                   long createdAt, CompletableFuture<Void> written) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.action = action;
+            this.changes = changes;
+            this.createdAt = createdAt;
+            this.written = written;
+        }
+    }
+}
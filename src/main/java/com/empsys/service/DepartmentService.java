@@ -1,10 +1,13 @@
 package com.empsys.service;
 
+import com.empsys.config.CacheConfig;
 import com.empsys.dto.DepartmentDTO;
 import com.empsys.entity.Department;
 import com.empsys.repository.DepartmentRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -19,6 +22,13 @@ public class DepartmentService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EmployeeReadModel employeeReadModel;
+
+    @Cacheable(CacheConfig.DEPARTMENTS)
     public List<DepartmentDTO> getAllDepartments() {
         return departmentRepository.findAll(Sort.by(Sort.Direction.ASC, "deptId"))
                 .stream()
@@ -32,22 +42,34 @@ public class DepartmentService {
                 .orElse(null);
     }
 
+    @CacheEvict(value = CacheConfig.DEPARTMENTS, allEntries = true)
     public DepartmentDTO addDepartment(DepartmentDTO dto) {
         Department department = modelMapper.map(dto, Department.class);
         departmentRepository.save(department);
-        return modelMapper.map(department, DepartmentDTO.class);
+        DepartmentDTO result = modelMapper.map(department, DepartmentDTO.class);
+        auditService.recordCreate(AuditService.DEPARTMENT, result.getDeptId(), result);
+        return result;
     }
 
+    @CacheEvict(value = CacheConfig.DEPARTMENTS, allEntries = true)
     public void deleteDepartment(Long id) {
-        departmentRepository.deleteById(id);
+        departmentRepository.findById(id).ifPresent(dept -> {
+            departmentRepository.delete(dept);
+            auditService.recordDelete(AuditService.DEPARTMENT, id, modelMapper.map(dept, DepartmentDTO.class));
+        });
     }
 
+    @CacheEvict(value = CacheConfig.DEPARTMENTS, allEntries = true)
     public DepartmentDTO updateDepartment(Long id, DepartmentDTO dto) {
         return departmentRepository.findById(id)
                 .map(existingDept -> {
+                    DepartmentDTO before = modelMapper.map(existingDept, DepartmentDTO.class);
                     existingDept.setDeptName(dto.getDeptName());
                     departmentRepository.save(existingDept);
-                    return modelMapper.map(existingDept, DepartmentDTO.class);
+                    employeeReadModel.renameDepartment(id, dto.getDeptName());
+                    DepartmentDTO result = modelMapper.map(existingDept, DepartmentDTO.class);
+                    auditService.recordUpdate(AuditService.DEPARTMENT, id, before, result);
+                    return result;
                 })
                 .orElse(null);
     }
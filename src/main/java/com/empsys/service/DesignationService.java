@@ -1,10 +1,13 @@
 package com.empsys.service;
 
+import com.empsys.config.CacheConfig;
 import com.empsys.dto.DesignationDTO;
 import com.empsys.entity.Designation;
 import com.empsys.repository.DesignationRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -19,6 +22,13 @@ public class DesignationService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EmployeeReadModel employeeReadModel;
+
+    @Cacheable(CacheConfig.DESIGNATIONS)
     public List<DesignationDTO> getAllDesignations() {
         return designationRepository.findAll(Sort.by(Sort.Direction.ASC, "desigId"))
                 .stream()
@@ -32,22 +42,34 @@ public class DesignationService {
                 .orElse(null);
     }
 
+    @CacheEvict(value = CacheConfig.DESIGNATIONS, allEntries = true)
     public DesignationDTO addDesignation(DesignationDTO dto) {
         Designation designation = modelMapper.map(dto, Designation.class);
         designationRepository.save(designation);
-        return modelMapper.map(designation, DesignationDTO.class);
+        DesignationDTO result = modelMapper.map(designation, DesignationDTO.class);
+        auditService.recordCreate(AuditService.DESIGNATION, result.getDesigId(), result);
+        return result;
     }
 
+    @CacheEvict(value = CacheConfig.DESIGNATIONS, allEntries = true)
     public void deleteDesignation(Long id) {
-        designationRepository.deleteById(id);
+        designationRepository.findById(id).ifPresent(desig -> {
+            designationRepository.delete(desig);
+            auditService.recordDelete(AuditService.DESIGNATION, id, modelMapper.map(desig, DesignationDTO.class));
+        });
     }
 
+    @CacheEvict(value = CacheConfig.DESIGNATIONS, allEntries = true)
     public DesignationDTO updateDesignation(Long id, DesignationDTO dto) {
         return designationRepository.findById(id)
                 .map(existingDesig -> {
+                    DesignationDTO before = modelMapper.map(existingDesig, DesignationDTO.class);
                     existingDesig.setDesigName(dto.getDesigName());
                     designationRepository.save(existingDesig);
-                    return modelMapper.map(existingDesig, DesignationDTO.class);
+                    employeeReadModel.renameDesignation(id, dto.getDesigName());
+                    DesignationDTO result = modelMapper.map(existingDesig, DesignationDTO.class);
+                    auditService.recordUpdate(AuditService.DESIGNATION, id, before, result);
+                    return result;
                 })
                 .orElse(null);
     }
@@ -0,0 +1,247 @@
+package com.empsys.service;
+
+import com.empsys.dto.DuplicateGroupDTO;
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.repository.EmployeeStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Finds groups of employees that share a normalized email or phone number.
+ *
+ * Employees are read in id ranges on several threads, keeping only the
+ * id and a 64-bit hash of each normalized key (16 bytes per key). The hashes are
+ * sorted to find the ones that occur more than once, and only the employees
+ * behind those are loaded to build the groups, which also drops hash collisions.
+ */
+@Service
+public class DuplicateReportService {
+
+    public static final String EMAIL = "email";
+    public static final String PHONE = "phone";
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateReportService.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private EmployeeStore employeeStore;
+
+    @Value("${empsys.duplicates.scan-threads:4}")
+    private int scanThreads;
+
+    // employee ids read per range query
+    @Value("${empsys.duplicates.scan-range-size:50000}")
+    private int scanRangeSize;
+
+    private ExecutorService scanners;
+
+    @PostConstruct
+    public void start() {
+        scanners = Executors.newFixedThreadPool(scanThreads, r -> {
+            Thread t = new Thread(r, "duplicate-scan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scanners.shutdownNow();
+    }
+
+    // largest groups first
+    public List<DuplicateGroupDTO> findDuplicates(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'limit' must be at least 1");
+        }
+        long start = System.nanoTime();
+        KeyHashes[] scanned = scan();
+        KeyHashes emails = scanned[0];
+        KeyHashes phones = scanned[1];
+
+        Map<Long, List<Long>> emailCandidates = emails.repeated();
+        Map<Long, List<Long>> phoneCandidates = phones.repeated();
+        Set<Long> ids = new LinkedHashSet<>();
+        emailCandidates.values().forEach(ids::addAll);
+        phoneCandidates.values().forEach(ids::addAll);
+        Map<Long, EmployeeDTO> employees = load(ids);
+
+        List<DuplicateGroupDTO> groups = new ArrayList<>();
+        groups.addAll(groups(EMAIL, emailCandidates, employees, dto -> EmployeeDuplicateIndex.normalizeEmail(dto.getEmail())));
+        groups.addAll(groups(PHONE, phoneCandidates, employees, dto -> EmployeeDuplicateIndex.normalizePhone(dto.getPhone())));
+        groups.sort(Comparator.comparingInt(DuplicateGroupDTO::getCount).reversed()
+                .thenComparing(DuplicateGroupDTO::getMatchType)
+                .thenComparing(DuplicateGroupDTO::getKey));
+
+        log.info("Duplicate scan of {} emails and {} phones found {} groups in {} ms",
+                emails.size, phones.size, groups.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return groups.size() > limit ? new ArrayList<>(groups.subList(0, limit)) : groups;
+    }
+
+    private KeyHashes[] scan() {
+        List<CompletableFuture<KeyHashes[]>> ranges = new ArrayList<>();
+        for (long[] range : employeeStore.idRanges(scanRangeSize)) {
+            ranges.add(CompletableFuture.supplyAsync(() -> scanRange(range[0], range[1]), scanners));
+        }
+        KeyHashes emails = new KeyHashes(0);
+        KeyHashes phones = new KeyHashes(0);
+        for (CompletableFuture<KeyHashes[]> range : ranges) {
+            KeyHashes[] part = range.join();
+            emails.addAll(part[0]);
+            phones.addAll(part[1]);
+        }
+        return new KeyHashes[] { emails, phones };
+    }
+
+    private KeyHashes[] scanRange(long lo, long hi) {
+        KeyHashes emails = new KeyHashes(1024);
+        KeyHashes phones = new KeyHashes(1024);
+        for (Object[] row : employeeStore.findContactKeys(lo, hi)) {
+            long empId = ((Number) row[0]).longValue();
+            emails.add(EmployeeDuplicateIndex.normalizeEmail((String) row[1]), empId);
+            phones.add(EmployeeDuplicateIndex.normalizePhone((String) row[2]), empId);
+        }
+        return new KeyHashes[] { emails, phones };
+    }
+
+    private Map<Long, EmployeeDTO> load(Set<Long> ids) {
+        Map<Long, EmployeeDTO> employees = new HashMap<>();
+        List<Long> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        for (Long id : ids) {
+            batch.add(id);
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                employeeStore.findAllById(batch).forEach(dto -> employees.put(dto.getEmpId(), dto));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            employeeStore.findAllById(batch).forEach(dto -> employees.put(dto.getEmpId(), dto));
+        }
+        return employees;
+    }
+
+    // regroups each hash bucket by the actual normalized key
+    private static List<DuplicateGroupDTO> groups(String matchType, Map<Long, List<Long>> candidates,
+                                                  Map<Long, EmployeeDTO> employees, Function<EmployeeDTO, String> normalizer) {
+        List<DuplicateGroupDTO> groups = new ArrayList<>();
+        for (List<Long> ids : candidates.values()) {
+            Map<String, List<EmployeeDTO>> byKey = new HashMap<>();
+            for (Long id : ids) {
+                EmployeeDTO dto = employees.get(id);
+                String key = dto != null ? normalizer.apply(dto) : null;
+                if (key != null) {
+                    byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(dto);
+                }
+            }
+            byKey.forEach((key, members) -> {
+                if (members.size() > 1) {
+                    members.sort(Comparator.comparing(EmployeeDTO::getEmpId));
+                    DuplicateGroupDTO group = new DuplicateGroupDTO();
+                    group.setMatchType(matchType);
+                    group.setKey(key);
+                    group.setCount(members.size());
+                    group.setEmployees(members);
+                    groups.add(group);
+                }
+            });
+        }
+        return groups;
+    }
+
+    // 64-bit FNV-1a with a murmur3 finalizer
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e65d53e63L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // parallel arrays of key hash and employee id
+    private static final class KeyHashes {
+        long[] hashes;
+        long[] ids;
+        int size;
+
+        KeyHashes(int capacity) {
+            hashes = new long[Math.max(capacity, 16)];
+            ids = new long[hashes.length];
+        }
+
+        void add(String key, long empId) {
+            if (key == null) {
+                return;
+            }
+            ensureCapacity(size + 1);
+            hashes[size] = hash(key);
+            ids[size] = empId;
+            size++;
+        }
+
+        void addAll(KeyHashes other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.hashes, 0, hashes, size, other.size);
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+        }
+
+        // hash -> ids for every hash seen more than once
+        Map<Long, List<Long>> repeated() {
+            long[] sorted = Arrays.copyOf(hashes, size);
+            Arrays.parallelSort(sorted);
+            Set<Long> repeatedHashes = new HashSet<>();
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] == sorted[i - 1]) {
+                    repeatedHashes.add(sorted[i]);
+                }
+            }
+            Map<Long, List<Long>> result = new HashMap<>();
+            if (repeatedHashes.isEmpty()) {
+                return result;
+            }
+            for (int i = 0; i < size; i++) {
+                if (repeatedHashes.contains(hashes[i])) {
+                    result.computeIfAbsent(hashes[i], h -> new ArrayList<>()).add(ids[i]);
+                }
+            }
+            return result;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > hashes.length) {
+                int grown = Math.max(needed, hashes.length * 2);
+                hashes = Arrays.copyOf(hashes, grown);
+                ids = Arrays.copyOf(ids, grown);
+            }
+        }
+    }
+}
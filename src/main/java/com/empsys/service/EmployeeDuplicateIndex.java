@@ -0,0 +1,311 @@
+package com.empsys.service;
+
+import com.empsys.repository.EmployeeStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of normalized employee emails and phone numbers.
+ *
+ * Emails are compared trimmed and lower-cased, phone numbers by their last ten
+ * digits, so "Asha@Example.com " and "+91 98765-43210" collide with the stored
+ * "asha@example.com" and "9876543210". {@link EmployeeService} reserves the keys
+ * of a new or changed employee before writing it; a key held by another
+ * employee is rejected with 409 without a database round trip.
+ *
+ * Off by default ({@code empsys.duplicates.enabled}). The keys take about
+ * 26 MB of heap per 100k employees, twice that while a reload builds the new
+ * keys next to the current ones.
+ *
+ * The first load runs in the background after startup; until it is done new and
+ * changed employees are only checked by the database constraints. A periodic
+ * reload picks up employees written by other instances, which bounds
+ * how long such a duplicate can slip through to
+ * {@code empsys.duplicates.refresh-interval-ms}. Claims and releases made while
+ * a reload is reading the table are replayed onto the reloaded keys by a
+ * {@link ReplayingReloader}. Rows that were already duplicated when the index
+ * was loaded are kept under the lowest id and show up in the duplicate report.
+ */
+@Service
+@Order(1)
+public class EmployeeDuplicateIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDuplicateIndex.class);
+
+    private static final int PHONE_DIGITS = 10;
+
+    @Autowired
+    private EmployeeStore employeeStore;
+
+    @Value("${empsys.duplicates.enabled:false}")
+    private boolean enabled;
+
+    @Value("${empsys.duplicates.refresh-interval-ms:300000}")
+    private long refreshIntervalMs;
+
+    // owners of keys whose employee is still being inserted and has no id yet
+    private final AtomicLong pendingOwners = new AtomicLong();
+    // guards both key maps, so a reservation claims its email and phone together
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReplayingReloader reloader = new ReplayingReloader(lock);
+    private final KeyIndex emails = new KeyIndex("Email");
+    private final KeyIndex phones = new KeyIndex("Phone");
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "duplicate-index");
+            t.setDaemon(true);
+            return t;
+        });
+        // the first load runs in the background; until it is done only the database constraints apply
+        refresher.scheduleWithFixedDelay(this::loadQuietly, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public boolean isActive() {
+        return enabled && reloader.isLoaded();
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        LoadedKeys[] read = new LoadedKeys[1];
+        int replayed = reloader.reload(this::read, keys -> {
+            read[0] = keys;
+            emails.owners = keys.emails();
+            phones.owners = keys.phones();
+        });
+        log.info("Duplicate index loaded {} employees in {} ms ({} existing duplicate keys, {} concurrent changes replayed)",
+                read[0].rows(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), read[0].duplicates(), replayed);
+    }
+
+    private LoadedKeys read() {
+        List<Object[]> rows = employeeStore.findAllContactKeys();
+        Map<String, Long> emailOwners = new HashMap<>(rows.size() * 2);
+        Map<String, Long> phoneOwners = new HashMap<>(rows.size() * 2);
+        int duplicates = 0;
+        for (Object[] row : rows) {
+            long empId = ((Number) row[0]).longValue();
+            duplicates += KeyIndex.add(emailOwners, normalizeEmail((String) row[1]), empId);
+            duplicates += KeyIndex.add(phoneOwners, normalizePhone((String) row[2]), empId);
+        }
+        return new LoadedKeys(emailOwners, phoneOwners, rows.size(), duplicates);
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException ex) {
+            log.warn("Duplicate index reload failed, keeping the current keys", ex);
+        }
+    }
+
+    // claims the email and phone of an employee that is about to be inserted
+    public Reservation reserveNew(String email, String phone) {
+        return reserve(-pendingOwners.incrementAndGet(), null, null, email, phone);
+    }
+
+    // claims the new email and phone of an existing employee, the old ones are given up on commit
+    public Reservation reserveChange(long empId, String oldEmail, String oldPhone, String email, String phone) {
+        return reserve(empId, oldEmail, oldPhone, email, phone);
+    }
+
+    private Reservation reserve(long owner, String oldEmail, String oldPhone, String email, String phone) {
+        if (!enabled) {
+            return null;
+        }
+        String newEmail = normalizeEmail(email);
+        String newPhone = normalizePhone(phone);
+        String previousEmail = normalizeEmail(oldEmail);
+        String previousPhone = normalizePhone(oldPhone);
+        String claimedEmail = newEmail != null && !newEmail.equals(previousEmail) ? newEmail : null;
+        String claimedPhone = newPhone != null && !newPhone.equals(previousPhone) ? newPhone : null;
+
+        lock.lock();
+        try {
+            // before the first load only the database constraints check the keys,
+            // but the claim is still replayed onto the loaded ones
+            if (reloader.isLoaded()) {
+                emails.checkFree(claimedEmail, owner);
+                phones.checkFree(claimedPhone, owner);
+            }
+            // a key the reload already read under another owner keeps that owner
+            reloader.apply(() -> {
+                emails.claim(claimedEmail, owner);
+                phones.claim(claimedPhone, owner);
+            });
+        } finally {
+            lock.unlock();
+        }
+        return new Reservation(owner, claimedEmail, claimedPhone,
+                previousEmail != null && !previousEmail.equals(newEmail) ? previousEmail : null,
+                previousPhone != null && !previousPhone.equals(newPhone) ? previousPhone : null);
+    }
+
+    // the write succeeded: bind the claimed keys to the employee id and drop the keys it no longer uses
+    public void commit(Reservation reservation, long empId) {
+        if (reservation == null) {
+            return;
+        }
+        reloader.apply(() -> {
+            emails.bind(reservation.email, reservation.owner, empId);
+            phones.bind(reservation.phone, reservation.owner, empId);
+            emails.release(reservation.staleEmail, empId);
+            phones.release(reservation.stalePhone, empId);
+        });
+    }
+
+    // the write failed: free the claimed keys again
+    public void release(Reservation reservation) {
+        if (reservation == null) {
+            return;
+        }
+        reloader.apply(() -> {
+            emails.release(reservation.email, reservation.owner);
+            phones.release(reservation.phone, reservation.owner);
+        });
+    }
+
+    public void remove(long empId, String email, String phone) {
+        if (!enabled) {
+            return;
+        }
+        String removedEmail = normalizeEmail(email);
+        String removedPhone = normalizePhone(phone);
+        reloader.apply(() -> {
+            emails.release(removedEmail, empId);
+            phones.release(removedPhone, empId);
+        });
+    }
+
+    static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // digits only, country code and trunk prefix dropped by keeping the last ten
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 0) {
+            return null;
+        }
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits.toString();
+    }
+
+    /** Keys claimed by one {@link #reserveNew}/{@link #reserveChange} call. */
+    public static final class Reservation {
+        private final long owner;
+        private final String email;
+        private final String phone;
+        private final String staleEmail;
+        private final String stalePhone;
+
+        private Reservation(long owner, String email, String phone, String staleEmail, String stalePhone) {
+            this.owner = owner;
+            this.email = email;
+            this.phone = phone;
+            this.staleEmail = staleEmail;
+            this.stalePhone = stalePhone;
+        }
+    }
+
+    private record LoadedKeys(Map<String, Long> emails, Map<String, Long> phones, int rows, int duplicates) {
+    }
+
+    // normalized key -> owner; the owner is the employee id, or negative while the employee is being inserted.
+    // Not thread-safe, used under the index lock. Every change is conditional on the owner, so replaying one
+    // the reload already read is harmless.
+    private static final class KeyIndex {
+        private final String label;
+        private Map<String, Long> owners = new HashMap<>();
+
+        KeyIndex(String label) {
+            this.label = label;
+        }
+
+        // returns 1 if the key was already taken by a lower id
+        static int add(Map<String, Long> owners, String key, long empId) {
+            if (key == null) {
+                return 0;
+            }
+            Long previous = owners.putIfAbsent(key, empId);
+            if (previous == null) {
+                return 0;
+            }
+            if (empId < previous) {
+                owners.put(key, empId);
+            }
+            return 1;
+        }
+
+        void checkFree(String key, long owner) {
+            if (key == null) {
+                return;
+            }
+            Long existing = owners.get(key);
+            if (existing != null && existing != owner) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, existing < 0
+                        ? label + " '" + key + "' is being added by another request"
+                        : label + " '" + key + "' is already used by employee " + existing);
+            }
+        }
+
+        void claim(String key, long owner) {
+            if (key != null) {
+                owners.putIfAbsent(key, owner);
+            }
+        }
+
+        void bind(String key, long owner, long empId) {
+            if (key != null && owner != empId) {
+                owners.replace(key, owner, empId);
+            }
+        }
+
+        void release(String key, long owner) {
+            if (key != null) {
+                owners.remove(key, owner);
+            }
+        }
+    }
+}
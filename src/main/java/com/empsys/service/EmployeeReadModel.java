@@ -0,0 +1,397 @@
+package com.empsys.service;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.entity.Employee;
+import com.empsys.repository.EmployeeStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional in-memory read model of the employee directory.
+ *
+ * All employees (with department and designation names denormalized) are held
+ * in an immutable snapshot sorted by id. Readers never lock: they read whatever
+ * snapshot is current. Writes through {@link EmployeeService} build a copy with
+ * the changed row and swap it in atomically. The other sort orders are built on
+ * first use and then carried over to each new snapshot with the changed row moved
+ * to its place, so a write does not make the next read sort again. A periodic
+ * full reload picks up changes made outside this instance, which bounds staleness
+ * to {@code empsys.read-model.refresh-interval-ms}; writes made while it reads are
+ * replayed onto the new snapshot by {@link ReplayingReloader}.
+ *
+ * Measured with a heap delta ({@code EmployeeReadModelTests}), 100k employees take
+ * about 30 MB with one extra sort order built, each further order about 0.4 MB.
+ */
+@Service
+@Order(0)
+public class EmployeeReadModel implements ApplicationRunner {
+
+    public static final List<String> SORT_FIELDS = List.of("empId", "firstName", "lastName", "email", "hireDate");
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeReadModel.class);
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final Map<String, Comparator<EmployeeRow>> COMPARATORS = Map.of(
+            "empId", Comparator.comparingLong(EmployeeRow::empId),
+            "firstName", byString(EmployeeRow::firstName),
+            "lastName", byString(EmployeeRow::lastName),
+            "email", byString(EmployeeRow::email),
+            "hireDate", Comparator.<EmployeeRow>comparingLong(EmployeeRow::hireDate)
+                    .thenComparingLong(EmployeeRow::empId));
+
+    @Autowired
+    private EmployeeStore employeeStore;
+
+    @Value("${empsys.read-model.enabled:false}")
+    private boolean enabled;
+
+    @Value("${empsys.read-model.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // serializes writes, and replays them onto a reloaded snapshot
+    private final ReplayingReloader reloader = new ReplayingReloader(new ReentrantLock());
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "employee-read-model");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    // true once the first snapshot has been loaded
+    public boolean isActive() {
+        return enabled && reloader.isLoaded();
+    }
+
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int replayed = reloader.reload(this::load, current::set);
+        log.info("Employee read model loaded {} rows in {} ms, {} concurrent writes replayed",
+                current.get().rows.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), replayed);
+    }
+
+    private Snapshot load() {
+        List<Employee> employees = employeeStore.findAllWithReferences();
+        EmployeeRow[] rows = new EmployeeRow[employees.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = EmployeeRow.of(employees.get(i));
+        }
+        Arrays.sort(rows, COMPARATORS.get("empId"));
+        return new Snapshot(rows, System.currentTimeMillis());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Employee read model refresh failed, keeping snapshot from {} ms ago",
+                    System.currentTimeMillis() - current.get().loadedAt, ex);
+        }
+    }
+
+    public void upsert(Employee emp) {
+        EmployeeRow row = EmployeeRow.of(emp);
+        apply(s -> s.with(row));
+    }
+
+    public void remove(Long empId) {
+        apply(s -> s.without(empId));
+    }
+
+    // employee rows carry the department name, so a rename rewrites just those rows
+    public void renameDepartment(Long deptId, String deptName) {
+        apply(s -> s.map(row -> deptId.equals(row.deptId()) ? row.withDeptName(deptName) : row));
+    }
+
+    public void renameDesignation(Long desigId, String desigName) {
+        apply(s -> s.map(row -> desigId.equals(row.desigId()) ? row.withDesigName(desigName) : row));
+    }
+
+    private void apply(UnaryOperator<Snapshot> write) {
+        if (enabled) {
+            reloader.apply(() -> current.set(write.apply(current.get())));
+        }
+    }
+
+    public Optional<EmployeeDTO> findById(Long empId) {
+        Snapshot s = current.get();
+        int i = s.indexOf(empId);
+        return i >= 0 ? Optional.of(s.rows[i].toDTO()) : Optional.empty();
+    }
+
+    public long count() {
+        return current.get().rows.length;
+    }
+
+    public Page<EmployeeDTO> findAll(Pageable pageable) {
+        return page(null, pageable);
+    }
+
+    // case-insensitive substring of a name, email, phone, department or designation name. Like the
+    // inner joins of EmployeeRepository.searchEmployees, employees without a department or
+    // designation never match; unlike its LIKE, % and _ in the keyword are taken literally.
+    public Page<EmployeeDTO> search(String keyword, Pageable pageable) {
+        return page(keyword, pageable);
+    }
+
+    private Page<EmployeeDTO> page(String keyword, Pageable pageable) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        EmployeeRow[] view = current.get().sortedBy(order.getProperty());
+        boolean descending = order.isDescending();
+
+        long from = pageable.getOffset();
+        long to = from + pageable.getPageSize();
+        List<EmployeeDTO> content = new ArrayList<>(pageable.getPageSize());
+        long matched = 0;
+        for (int n = 0; n < view.length; n++) {
+            EmployeeRow row = view[descending ? view.length - 1 - n : n];
+            if (keyword != null && !row.matches(keyword)) {
+                continue;
+            }
+            if (matched >= from && matched < to) {
+                content.add(row.toDTO());
+            }
+            matched++;
+            // without a filter the total is known up front
+            if (keyword == null && matched >= to) {
+                matched = view.length;
+                break;
+            }
+        }
+        return new PageImpl<>(content, pageable, matched);
+    }
+
+    private static Comparator<EmployeeRow> byString(Function<EmployeeRow, String> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                .thenComparingLong(EmployeeRow::empId);
+    }
+
+    private static final class Snapshot {
+        final EmployeeRow[] rows;
+        final long loadedAt;
+        // sort orders built on first use; safe to share because rows never change
+        final Map<String, EmployeeRow[]> sortedViews = new ConcurrentHashMap<>();
+
+        Snapshot(EmployeeRow[] rows, long loadedAt) {
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+
+        int indexOf(long empId) {
+            int lo = 0;
+            int hi = rows.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long id = rows[mid].empId();
+                if (id < empId) {
+                    lo = mid + 1;
+                } else if (id > empId) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        EmployeeRow[] sortedBy(String field) {
+            if ("empId".equals(field)) {
+                return rows;
+            }
+            return sortedViews.computeIfAbsent(field, f -> {
+                EmployeeRow[] view = rows.clone();
+                Arrays.sort(view, COMPARATORS.get(f));
+                return view;
+            });
+        }
+
+        Snapshot with(EmployeeRow row) {
+            int i = indexOf(row.empId());
+            EmployeeRow[] next;
+            EmployeeRow previous = null;
+            if (i >= 0) {
+                previous = rows[i];
+                next = rows.clone();
+                next[i] = row;
+            } else {
+                int at = -(i + 1);
+                next = new EmployeeRow[rows.length + 1];
+                System.arraycopy(rows, 0, next, 0, at);
+                next[at] = row;
+                System.arraycopy(rows, at, next, at + 1, rows.length - at);
+            }
+            return withViews(new Snapshot(next, loadedAt), previous, row);
+        }
+
+        // rows for which f returns a different object are replaced, the rest are shared; f must
+        // not change a sort key, so the replaced rows keep their place in every sort order
+        Snapshot map(UnaryOperator<EmployeeRow> f) {
+            EmployeeRow[] next = null;
+            List<EmployeeRow> replaced = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                EmployeeRow row = f.apply(rows[i]);
+                if (row != rows[i]) {
+                    if (next == null) {
+                        next = rows.clone();
+                    }
+                    replaced.add(rows[i]);
+                    next[i] = row;
+                }
+            }
+            if (next == null) {
+                return this;
+            }
+            Snapshot snapshot = new Snapshot(next, loadedAt);
+            sortedViews.forEach((field, view) -> {
+                Comparator<EmployeeRow> order = COMPARATORS.get(field);
+                EmployeeRow[] updated = view.clone();
+                for (EmployeeRow row : replaced) {
+                    int at = Arrays.binarySearch(view, row, order);
+                    updated[at] = f.apply(row);
+                }
+                snapshot.sortedViews.put(field, updated);
+            });
+            return snapshot;
+        }
+
+        Snapshot without(long empId) {
+            int i = indexOf(empId);
+            if (i < 0) {
+                return this;
+            }
+            EmployeeRow[] next = new EmployeeRow[rows.length - 1];
+            System.arraycopy(rows, 0, next, 0, i);
+            System.arraycopy(rows, i + 1, next, i, rows.length - i - 1);
+            return withViews(new Snapshot(next, loadedAt), rows[i], null);
+        }
+
+        // carries the sort orders built so far over to the next snapshot, with one row taken
+        // out and/or put in by binary search instead of sorting again
+        private Snapshot withViews(Snapshot next, EmployeeRow out, EmployeeRow in) {
+            sortedViews.forEach((field, view) -> next.sortedViews.put(field, move(view, COMPARATORS.get(field), out, in)));
+            return next;
+        }
+
+        private static EmployeeRow[] move(EmployeeRow[] view, Comparator<EmployeeRow> order, EmployeeRow out, EmployeeRow in) {
+            EmployeeRow[] rest = view;
+            int at = out == null ? -1 : Arrays.binarySearch(view, out, order);
+            if (at >= 0) {
+                rest = new EmployeeRow[view.length - 1];
+                System.arraycopy(view, 0, rest, 0, at);
+                System.arraycopy(view, at + 1, rest, at, view.length - at - 1);
+            }
+            if (in == null) {
+                return rest;
+            }
+            // the comparators end with the id, so the new row has exactly one place
+            int to = -(Arrays.binarySearch(rest, in, order) + 1);
+            EmployeeRow[] next = new EmployeeRow[rest.length + 1];
+            System.arraycopy(rest, 0, next, 0, to);
+            next[to] = in;
+            System.arraycopy(rest, to, next, to + 1, rest.length - to);
+            return next;
+        }
+    }
+
+    private record EmployeeRow(long empId, String firstName, String lastName, String email, String phone,
+                               long hireDate, Long deptId, Long desigId, String deptName, String desigName) {
+
+        static EmployeeRow of(Employee emp) {
+            return new EmployeeRow(emp.getEmpId(), emp.getFirstName(), emp.getLastName(), emp.getEmail(),
+                    emp.getPhone(), emp.getHireDate() != null ? emp.getHireDate().getTime() : NO_DATE,
+                    emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null,
+                    emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null,
+                    emp.getDepartment() != null ? emp.getDepartment().getDeptName() : null,
+                    emp.getDesignation() != null ? emp.getDesignation().getDesigName() : null);
+        }
+
+        EmployeeRow withDeptName(String name) {
+            return new EmployeeRow(empId, firstName, lastName, email, phone, hireDate, deptId, desigId, name, desigName);
+        }
+
+        EmployeeRow withDesigName(String name) {
+            return new EmployeeRow(empId, firstName, lastName, email, phone, hireDate, deptId, desigId, deptName, name);
+        }
+
+        boolean matches(String keyword) {
+            if (deptId == null || desigId == null) {
+                return false;
+            }
+            return contains(firstName, keyword) || contains(lastName, keyword) || contains(email, keyword)
+                    || contains(phone, keyword) || contains(deptName, keyword) || contains(desigName, keyword);
+        }
+
+        private static boolean contains(String value, String keyword) {
+            if (value == null) {
+                return false;
+            }
+            int max = value.length() - keyword.length();
+            for (int i = 0; i <= max; i++) {
+                if (value.regionMatches(true, i, keyword, 0, keyword.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        EmployeeDTO toDTO() {
+            EmployeeDTO dto = new EmployeeDTO();
+            dto.setEmpId(empId);
+            dto.setFirstName(firstName);
+            dto.setLastName(lastName);
+            dto.setEmail(email);
+            dto.setPhone(phone);
+            dto.setHireDate(hireDate != NO_DATE ? new Date(hireDate) : null);
+            dto.setDeptId(deptId);
+            dto.setDesigId(desigId);
+            return dto;
+        }
+    }
+}
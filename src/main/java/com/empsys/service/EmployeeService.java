@@ -1,23 +1,42 @@
 package com.empsys.service;
 
+import com.empsys.config.CacheConfig;
 import com.empsys.dto.EmployeeDTO;
+import com.empsys.dto.TenureBucketDTO;
 import com.empsys.entity.Employee;
-import com.empsys.repository.EmployeeRepository;
 import com.empsys.repository.DepartmentRepository;
 import com.empsys.repository.DesignationRepository;
+import com.empsys.repository.EmployeeStore;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
 
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private EmployeeStore employeeStore;
 
     @Autowired
     private DepartmentRepository departmentRepository;
@@ -28,81 +47,227 @@ public class EmployeeService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EmployeeReadModel employeeReadModel;
+
+    @Autowired
+    private EmployeeDuplicateIndex duplicateIndex;
+
+    @Autowired
+    private HireDateIndex hireDateIndex;
+
     //Get All Employees with Pagination
-    public Page<EmployeeDTO> getAllEmployees(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("empId").ascending());
-        return employeeRepository.findAll(pageable)
-                .map(emp -> {
-                    EmployeeDTO dto = modelMapper.map(emp, EmployeeDTO.class);
-                    dto.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
-                    dto.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
-                    return dto;
-                });
+    @Cacheable(value = CacheConfig.EMPLOYEE_PAGES,
+            key = "T(com.empsys.service.EmployeeService).pageKey(#page, #size, #sortBy, #direction)",
+            condition = "#page < T(com.empsys.config.CacheConfig).MAX_CACHED_PAGE"
+                    + " && #size <= T(com.empsys.config.CacheConfig).MAX_CACHED_PAGE_SIZE")
+    public Page<EmployeeDTO> getAllEmployees(int page, int size, String sortBy, String direction) {
+        Pageable pageable = PageRequest.of(page, size, sort(sortBy, direction));
+        if (employeeReadModel.isActive()) {
+            return employeeReadModel.findAll(pageable);
+        }
+        return employeeStore.findAll(pageable);
     }
 
     public EmployeeDTO getEmployeeById(Long id) {
-        return employeeRepository.findById(id)
-                .map(emp -> {
-                    EmployeeDTO dto = modelMapper.map(emp, EmployeeDTO.class);
-                    dto.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
-                    dto.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
-                    return dto;
-                })
-                .orElse(null);
+        if (employeeReadModel.isActive()) {
+            return employeeReadModel.findById(id).orElse(null);
+        }
+        return employeeStore.findById(id).orElse(null);
     }
 
+    @CacheEvict(value = CacheConfig.EMPLOYEE_PAGES, allEntries = true)
     public EmployeeDTO addEmployee(EmployeeDTO dto) {
+        // rejects a duplicate email or phone with 409 before touching the database
+        EmployeeDuplicateIndex.Reservation reservation = duplicateIndex.reserveNew(dto.getEmail(), dto.getPhone());
         Employee emp = modelMapper.map(dto, Employee.class);
-        emp.setDepartment(departmentRepository.findById(dto.getDeptId()).orElse(null));
-        emp.setDesignation(designationRepository.findById(dto.getDesigId()).orElse(null));
-        employeeRepository.save(emp);
+        try {
+            emp.setDepartment(departmentRepository.findById(dto.getDeptId()).orElse(null));
+            emp.setDesignation(designationRepository.findById(dto.getDesigId()).orElse(null));
+            emp.setEmpId(employeeStore.insert(toDTO(emp)).getEmpId());
+        } catch (RuntimeException ex) {
+            duplicateIndex.release(reservation);
+            throw ex;
+        }
+        duplicateIndex.commit(reservation, emp.getEmpId());
+        employeeReadModel.upsert(emp);
+        hireDateIndex.upsert(emp.getEmpId(), null, emp.getHireDate());
 
-        EmployeeDTO result = modelMapper.map(emp, EmployeeDTO.class);
-        result.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
-        result.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
+        EmployeeDTO result = toDTO(emp);
+        auditService.recordCreate(AuditService.EMPLOYEE, result.getEmpId(), result);
         return result;
     }
 
+    @CacheEvict(value = CacheConfig.EMPLOYEE_PAGES, allEntries = true)
     public EmployeeDTO updateEmployee(Long id, EmployeeDTO dto) {
-        Employee existingEmp = employeeRepository.findById(id).orElse(null);
-        if (existingEmp != null) {
+        EmployeeDTO before = employeeStore.findById(id).orElse(null);
+        if (before != null) {
+            EmployeeDuplicateIndex.Reservation reservation = duplicateIndex.reserveChange(
+                    id, before.getEmail(), before.getPhone(), dto.getEmail(), dto.getPhone());
+            Employee existingEmp = new Employee();
+            existingEmp.setEmpId(id);
             existingEmp.setFirstName(dto.getFirstName());
             existingEmp.setLastName(dto.getLastName());
             existingEmp.setEmail(dto.getEmail());
             existingEmp.setPhone(dto.getPhone());
             existingEmp.setHireDate(dto.getHireDate());
-            existingEmp.setDepartment(departmentRepository.findById(dto.getDeptId()).orElse(null));
-            existingEmp.setDesignation(designationRepository.findById(dto.getDesigId()).orElse(null));
+            boolean updated;
+            try {
+                existingEmp.setDepartment(departmentRepository.findById(dto.getDeptId()).orElse(null));
+                existingEmp.setDesignation(designationRepository.findById(dto.getDesigId()).orElse(null));
+                updated = employeeStore.update(toDTO(existingEmp));
+            } catch (RuntimeException ex) {
+                duplicateIndex.release(reservation);
+                throw ex;
+            }
+            if (!updated) {
+                // deleted since it was read
+                duplicateIndex.release(reservation);
+                return null;
+            }
+            duplicateIndex.commit(reservation, id);
+            employeeReadModel.upsert(existingEmp);
+            hireDateIndex.upsert(id, before.getHireDate(), existingEmp.getHireDate());
 
-            employeeRepository.save(existingEmp);
-
-            EmployeeDTO result = modelMapper.map(existingEmp, EmployeeDTO.class);
-            result.setDeptId(existingEmp.getDepartment() != null ? existingEmp.getDepartment().getDeptId() : null);
-            result.setDesigId(existingEmp.getDesignation() != null ? existingEmp.getDesignation().getDesigId() : null);
+            EmployeeDTO result = toDTO(existingEmp);
+            auditService.recordUpdate(AuditService.EMPLOYEE, id, before, result);
             return result;
         }
         return null;
     }
 
+    @CacheEvict(value = CacheConfig.EMPLOYEE_PAGES, allEntries = true)
     public void deleteEmployee(Long id) {
-        employeeRepository.deleteById(id);
+        employeeStore.findById(id).ifPresent(before -> {
+            if (!employeeStore.deleteById(id)) {
+                return;
+            }
+            employeeReadModel.remove(id);
+            duplicateIndex.remove(id, before.getEmail(), before.getPhone());
+            hireDateIndex.remove(id, before.getHireDate());
+            auditService.recordDelete(AuditService.EMPLOYEE, id, before);
+        });
     }
 
     //Search Employees with Pagination
-    public Page<EmployeeDTO> searchEmployees(String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("empId").ascending());
-        return employeeRepository.searchEmployees(keyword, pageable)
-                .map(emp -> {
-                    EmployeeDTO dto = modelMapper.map(emp, EmployeeDTO.class);
-                    dto.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
-                    dto.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
-                    return dto;
-                });
+    public Page<EmployeeDTO> searchEmployees(String keyword, int page, int size, String sortBy, String direction) {
+        Pageable pageable = PageRequest.of(page, size, sort(sortBy, direction));
+        if (employeeReadModel.isActive()) {
+            return employeeReadModel.search(keyword, pageable);
+        }
+        return employeeStore.search(keyword, pageable);
     }
     
+    // cache key of a listing page; the direction is case-insensitive in sort()
+    public static String pageKey(int page, int size, String sortBy, String direction) {
+        return page + ":" + size + ":" + sortBy + ":" + (direction != null ? direction.toLowerCase(Locale.ROOT) : null);
+    }
+
     //count employees
     public long countEmployee() {
-    	return employeeRepository.count();
+        if (employeeReadModel.isActive()) {
+            return employeeReadModel.count();
+        }
+    	return employeeStore.count();
+    }
+
+    // highest employee id in use, null when there are no employees
+    public Long maxEmployeeId() {
+        return employeeStore.findMaxEmpId();
+    }
+
+    // employees hired from..to (inclusive), ordered by hire date and then id
+    public Page<EmployeeDTO> getHiredBetween(LocalDate from, LocalDate to, int page, int size, String direction) {
+        checkRange(from, to);
+        Pageable pageable = PageRequest.of(page, size, sort("hireDate", direction));
+        if (hireDateIndex.isActive()) {
+            Page<Long> ids = hireDateIndex.page(from, to, pageable);
+            return new PageImpl<>(getEmployeesInOrder(ids.getContent()), pageable, ids.getTotalElements());
+        }
+        return employeeStore.findHiredBetween(toDate(from), toDate(to.plusDays(1)), pageable);
+    }
+
+    public long countHiredBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (hireDateIndex.isActive()) {
+            return hireDateIndex.count(from, to);
+        }
+        return employeeStore.countHiredBetween(toDate(from), toDate(to.plusDays(1)));
+    }
+
+    /**
+     * Headcount by completed years of service on {@code asOf}. Bounds 1, 3, 5 give the
+     * buckets 0-1, 1-3, 3-5 and 5+ years; employees hired after {@code asOf} are not counted.
+     */
+    public List<TenureBucketDTO> getTenureBuckets(LocalDate asOf, List<Integer> bounds) {
+        for (int i = 0; i < bounds.size(); i++) {
+            if (bounds.get(i) <= 0 || (i > 0 && bounds.get(i) <= bounds.get(i - 1))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tenure bounds must be positive and increasing");
+            }
+        }
+        List<TenureBucketDTO> buckets = new ArrayList<>(bounds.size() + 1);
+        int lower = 0;
+        for (int i = 0; i <= bounds.size(); i++) {
+            Integer upper = i < bounds.size() ? bounds.get(i) : null;
+            TenureBucketDTO bucket = new TenureBucketDTO();
+            bucket.setLabel(upper != null ? lower + "-" + upper + " years" : lower + "+ years");
+            bucket.setMinYears(lower);
+            bucket.setMaxYears(upper);
+            // at least lower but under upper years means hired after asOf - upper years, up to asOf - lower years
+            bucket.setHiredFrom(upper != null ? asOf.minusYears(upper).plusDays(1) : null);
+            bucket.setHiredTo(asOf.minusYears(lower));
+            LocalDate from = upper != null ? bucket.getHiredFrom() : HireDateIndex.FIRST_DAY;
+            bucket.setCount(from.isAfter(bucket.getHiredTo()) ? 0 : countHiredBetween(from, bucket.getHiredTo()));
+            buckets.add(bucket);
+            lower = upper != null ? upper : lower;
+        }
+        return buckets;
+    }
+
+    // employees by id in no particular order
+    private List<EmployeeDTO> getEmployeesByIds(Collection<Long> ids) {
+        return employeeStore.findAllById(ids);
+    }
+
+    // same as getEmployeesByIds but in the order of ids
+    private List<EmployeeDTO> getEmployeesInOrder(List<Long> ids) {
+        if (employeeReadModel.isActive()) {
+            return ids.stream().map(employeeReadModel::findById).flatMap(Optional::stream).toList();
+        }
+        Map<Long, EmployeeDTO> byId = getEmployeesByIds(ids).stream()
+                .collect(Collectors.toMap(EmployeeDTO::getEmpId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // sorts on one of EmployeeReadModel.SORT_FIELDS, ties broken by id
+    static Sort sort(String sortBy, String direction) {
+        if (sortBy == null || !EmployeeReadModel.SORT_FIELDS.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort employees by '" + sortBy + "'");
+        }
+        Sort.Direction dir = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sort direction '" + direction + "'"));
+        Sort sort = Sort.by(dir, sortBy);
+        return "empId".equals(sortBy) ? sort : sort.and(Sort.by(dir, "empId"));
+    }
+
+    private EmployeeDTO toDTO(Employee emp) {
+        EmployeeDTO dto = modelMapper.map(emp, EmployeeDTO.class);
+        dto.setDeptId(emp.getDepartment() != null ? emp.getDepartment().getDeptId() : null);
+        dto.setDesigId(emp.getDesignation() != null ? emp.getDesignation().getDesigId() : null);
+        return dto;
     }
     
     
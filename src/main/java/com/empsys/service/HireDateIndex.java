@@ -0,0 +1,339 @@
+package com.empsys.service;
+
+import com.empsys.repository.EmployeeStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of employee ids by hire date.
+ *
+ * Employees are kept in one bucket per hire day (ids sorted within the day) and
+ * a Fenwick tree over all days from {@link #FIRST_DAY} to {@link #LAST_DAY}
+ * holds the bucket sizes. Counting the employees hired in a date range is two
+ * prefix sums, and the n-th employee of a range is found by searching the tree,
+ * so counts and page starts take O(log days) however many employees there are.
+ * {@link EmployeeService} keeps it current on add, update and delete; a periodic
+ * reload picks up changes made outside this instance, and writes made while it
+ * reads are replayed by a {@link ReplayingReloader}. Each reload reads the id and
+ * hire date of every employee. The first load runs in the background after startup
+ * and queries are answered by the database until it is done.
+ */
+@Service
+@Order(2)
+public class HireDateIndex implements ApplicationRunner {
+
+    public static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+    public static final LocalDate LAST_DAY = LocalDate.of(2199, 12, 31);
+
+    private static final Logger log = LoggerFactory.getLogger(HireDateIndex.class);
+
+    private static final long BASE = FIRST_DAY.toEpochDay();
+    private static final int DAYS = (int) (LAST_DAY.toEpochDay() - BASE + 1);
+
+    @Autowired
+    private EmployeeStore employeeStore;
+
+    @Value("${empsys.hire-date-index.enabled:true}")
+    private boolean enabled;
+
+    // how long an employee written by another instance can be missing from the answers
+    @Value("${empsys.hire-date-index.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReplayingReloader reloader = new ReplayingReloader(lock.writeLock());
+    // Fenwick tree, 1-based: position d + 1 counts the employees hired on day d
+    private long[] tree = new long[DAYS + 1];
+    private NavigableMap<Integer, long[]> buckets = new TreeMap<>();
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hire-date-index");
+            t.setDaemon(true);
+            return t;
+        });
+        // the first load runs in the background, queries go to the database until it is done
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public boolean isActive() {
+        return enabled && reloader.isLoaded();
+    }
+
+    public void refresh() {
+        long start = System.nanoTime();
+        LoadedDays[] read = new LoadedDays[1];
+        reloader.reload(this::read, days -> {
+            read[0] = days;
+            tree = days.tree();
+            buckets = days.buckets();
+        });
+        log.info("Hire-date index loaded {} employees over {} days in {} ms",
+                read[0].rows(), read[0].buckets().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // builds the new index outside the lock, readers keep using the old one meanwhile
+    private LoadedDays read() {
+        List<Object[]> rows = employeeStore.findAllHireDates();
+        Map<Integer, List<Long>> byDay = new TreeMap<>();
+        int outOfRange = 0;
+        for (Object[] row : rows) {
+            int day = day((Date) row[1]);
+            if (day < 0) {
+                outOfRange += row[1] != null ? 1 : 0;
+                continue;
+            }
+            byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(((Number) row[0]).longValue());
+        }
+        long[] newTree = new long[DAYS + 1];
+        NavigableMap<Integer, long[]> newBuckets = new TreeMap<>();
+        byDay.forEach((day, ids) -> {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+            newBuckets.put(day, sorted);
+            newTree[day + 1] = sorted.length;
+        });
+        // linear-time Fenwick construction from the per-day counts
+        for (int i = 1; i <= DAYS; i++) {
+            int parent = i + (i & -i);
+            if (parent <= DAYS) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        if (outOfRange > 0) {
+            log.warn("{} employees have a hire date outside {}..{} and are not in the hire-date index",
+                    outOfRange, FIRST_DAY, LAST_DAY);
+        }
+        return new LoadedDays(newTree, newBuckets, rows.size());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Hire-date index refresh failed, keeping the current index", ex);
+        }
+    }
+
+    // moves the employee from its previous hire day (null for a new employee) to the new one
+    public void upsert(long empId, Date previousHireDate, Date hireDate) {
+        if (!enabled) {
+            return;
+        }
+        int from = day(previousHireDate);
+        int to = day(hireDate);
+        // a refresh in progress, the first one included, replays the move after it swaps;
+        // removing and adding are idempotent, so the rows it read may include the move or not
+        reloader.apply(() -> moveLocked(empId, from, to));
+    }
+
+    public void remove(long empId, Date hireDate) {
+        upsert(empId, hireDate, null);
+    }
+
+    // employees hired from..to, both inclusive
+    public long count(LocalDate from, LocalDate to) {
+        int first = clampFrom(from);
+        int last = clampTo(to);
+        if (first > last) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return prefix(last) - prefix(first - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the employees hired from..to (inclusive) ordered by hire date, descending if the
+     * pageable sorts by {@code hireDate} descending, and then id. The page and its total are
+     * read under one lock, so they always agree.
+     */
+    public Page<Long> page(LocalDate from, LocalDate to, Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("hireDate");
+        boolean descending = order != null && order.isDescending();
+        int first = clampFrom(from);
+        int last = clampTo(to);
+        if (first > last) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        lock.readLock().lock();
+        try {
+            long before = prefix(first - 1);
+            long through = prefix(last);
+            List<Long> ids = idsLocked(first, last, before, through, pageable.getOffset(), pageable.getPageSize(), descending);
+            return new PageImpl<>(ids, pageable, through - before);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // skips offset of the employees ranked before..through-1 in hire-date order and returns at most size
+    private List<Long> idsLocked(int first, int last, long before, long through, long offset, int size, boolean descending) {
+        List<Long> ids = new ArrayList<>(size);
+        if (offset >= through - before) {
+            return ids;
+        }
+        // rank of the first row to return among all indexed employees
+        long rank = descending ? through - 1 - offset : before + offset;
+        int day = dayOfRank(rank);
+        int position = (int) (rank - prefix(day - 1));
+        NavigableMap<Integer, long[]> days = descending
+                ? buckets.subMap(first, true, day, true).descendingMap()
+                : buckets.subMap(day, true, last, true);
+        for (long[] bucket : days.values()) {
+            if (descending) {
+                for (int i = position < 0 ? bucket.length - 1 : position; i >= 0 && ids.size() < size; i--) {
+                    ids.add(bucket[i]);
+                }
+            } else {
+                for (int i = Math.max(position, 0); i < bucket.length && ids.size() < size; i++) {
+                    ids.add(bucket[i]);
+                }
+            }
+            if (ids.size() == size) {
+                break;
+            }
+            position = -1;
+        }
+        return ids;
+    }
+
+    private void moveLocked(long empId, int from, int to) {
+        if (from >= 0) {
+            removeLocked(empId, from);
+        }
+        if (to >= 0) {
+            addLocked(empId, to);
+        }
+    }
+
+    private void addLocked(long empId, int day) {
+        long[] bucket = buckets.get(day);
+        if (bucket == null) {
+            buckets.put(day, new long[] { empId });
+        } else {
+            int at = Arrays.binarySearch(bucket, empId);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            long[] grown = new long[bucket.length + 1];
+            System.arraycopy(bucket, 0, grown, 0, at);
+            grown[at] = empId;
+            System.arraycopy(bucket, at, grown, at + 1, bucket.length - at);
+            buckets.put(day, grown);
+        }
+        update(day, 1);
+    }
+
+    private void removeLocked(long empId, int day) {
+        long[] bucket = buckets.get(day);
+        int at = bucket == null ? -1 : Arrays.binarySearch(bucket, empId);
+        if (at < 0) {
+            return;
+        }
+        if (bucket.length == 1) {
+            buckets.remove(day);
+        } else {
+            long[] shrunk = new long[bucket.length - 1];
+            System.arraycopy(bucket, 0, shrunk, 0, at);
+            System.arraycopy(bucket, at + 1, shrunk, at, bucket.length - at - 1);
+            buckets.put(day, shrunk);
+        }
+        update(day, -1);
+    }
+
+    private void update(int day, long delta) {
+        for (int i = day + 1; i <= DAYS; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // employees hired on days 0..day
+    private long prefix(int day) {
+        long sum = 0;
+        for (int i = day + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // the day holding the employee with the given 0-based rank in hire-date order
+    private int dayOfRank(long rank) {
+        int position = 0;
+        long remaining = rank;
+        for (int step = Integer.highestOneBit(DAYS); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= DAYS && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    // a range starting after LAST_DAY becomes empty, one ending before FIRST_DAY too
+    private static int clampFrom(LocalDate date) {
+        return (int) Math.max(0, Math.min(DAYS, date.toEpochDay() - BASE));
+    }
+
+    private static int clampTo(LocalDate date) {
+        return (int) Math.max(-1, Math.min(DAYS - 1, date.toEpochDay() - BASE));
+    }
+
+    // day offset of a hire date in the system time zone, -1 if missing or out of range
+    static int day(Date date) {
+        if (date == null) {
+            return -1;
+        }
+        // java.sql.Date does not support toInstant()
+        LocalDate local = date instanceof java.sql.Date sqlDate
+                ? sqlDate.toLocalDate()
+                : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        long day = local.toEpochDay() - BASE;
+        return day < 0 || day >= DAYS ? -1 : (int) day;
+    }
+
+    private record LoadedDays(long[] tree, NavigableMap<Integer, long[]> buckets, int rows) {
+    }
+}
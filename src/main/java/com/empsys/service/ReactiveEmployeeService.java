@@ -0,0 +1,47 @@
+package com.empsys.service;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.repository.ReactiveEmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only counterpart of {@link EmployeeService} that never holds a request
+ * thread while waiting on the database. Page and count queries of a request
+ * run concurrently on the R2DBC pool.
+ */
+@Service
+@ConditionalOnProperty(name = "empsys.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeService {
+
+    @Autowired
+    private ReactiveEmployeeRepository reactiveEmployeeRepository;
+
+    public Mono<Page<EmployeeDTO>> getAllEmployees(int page, int size, String sortBy, String direction) {
+        Pageable pageable = PageRequest.of(page, size, EmployeeService.sort(sortBy, direction));
+        return Mono.zip(reactiveEmployeeRepository.findAll(pageable).collectList(), reactiveEmployeeRepository.count())
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<EmployeeDTO> getEmployeeById(Long id) {
+        return reactiveEmployeeRepository.findById(id);
+    }
+
+    public Mono<Page<EmployeeDTO>> searchEmployees(String keyword, int page, int size, String sortBy, String direction) {
+        Pageable pageable = PageRequest.of(page, size, EmployeeService.sort(sortBy, direction));
+        return Mono.zip(reactiveEmployeeRepository.search(keyword, pageable).collectList(),
+                        reactiveEmployeeRepository.countSearch(keyword))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Flux<EmployeeDTO> exportEmployees() {
+        return reactiveEmployeeRepository.streamAll();
+    }
+}
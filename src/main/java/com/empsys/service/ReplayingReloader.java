@@ -0,0 +1,91 @@
+package com.empsys.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reloads an in-memory copy of database state without losing the writes made
+ * while the reload is reading.
+ *
+ * Writes to the copy run under {@code lock}, and while a reload is reading they
+ * are also recorded. The reload then swaps the new state in and replays the
+ * recorded writes onto it under the same lock, so readers never see the table
+ * as it was before those writes. The rows read may or may not include a write
+ * that is replayed, so every write has to be idempotent.
+ */
+final class ReplayingReloader {
+
+    private final Lock lock;
+    // writes made since the running reload started reading, null when no reload is running
+    private List<Runnable> pending;
+    private volatile boolean loaded;
+
+    ReplayingReloader(Lock lock) {
+        this.lock = lock;
+    }
+
+    // true once the first reload has been swapped in
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Reads new state outside the lock, then swaps it in and replays the writes made
+     * meanwhile. Returns the number of writes replayed. If the read fails the current
+     * state is kept. Synchronized so two reloads never share the recorded writes.
+     */
+    synchronized <T> int reload(Supplier<T> read, Consumer<T> swap) {
+        lock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        T state;
+        try {
+            state = read.get();
+        } catch (RuntimeException ex) {
+            lock.lock();
+            try {
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            throw ex;
+        }
+        lock.lock();
+        try {
+            swap.accept(state);
+            int replayed = pending.size();
+            pending.forEach(Runnable::run);
+            pending = null;
+            loaded = true;
+            return replayed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // runs the write on the current state, if there is one yet, and keeps it for a running reload
+    void apply(Runnable write) {
+        lock.lock();
+        try {
+            if (loaded) {
+                write.run();
+            }
+            record(write);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // keeps a write for a running reload; the caller holds the lock and has already applied it
+    void record(Runnable write) {
+        if (pending != null) {
+            pending.add(write);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.empsys.service;
+
+import com.empsys.dto.SlowQueryDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects statements that ran longer than {@code empsys.query-observer.threshold-ms}.
+ *
+ * Statements are grouped by their normalized text (literals and IN lists replaced by
+ * {@code ?}). The first slow execution of every SELECT is re-run with EXPLAIN on a
+ * background thread and the plan is checked for full table scans, so the report
+ * shows which repository queries are missing an index.
+ */
+@Service
+public class SlowQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryService.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // H2 annotates each table with the index it walks; no ": condition" means every row is read
+    private static final Pattern H2_TABLE_ACCESS = Pattern.compile(
+            "(?:FROM|JOIN)\\s+\"?\\w+\"?\\.\"?(\\w+)\"?[^/]*/\\*\\s*([^*]*?)\\s*\\*/(\\s*/\\*\\s*direct lookup)?");
+
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    @Value("${empsys.query-observer.threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${empsys.query-observer.explain:true}")
+    private boolean explain;
+
+    @Value("${empsys.query-observer.max-statements:500}")
+    private int maxStatements;
+
+    private final Map<String, Entry> statements = new ConcurrentHashMap<>();
+
+    private final ExecutorService explainer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "slow-query-explain");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    public void stop() {
+        explainer.shutdownNow();
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * @param params bind values of the slow execution, index 0 unused
+     * @param dataSource the unobserved datasource the statement ran on, used for EXPLAIN
+     */
+    public void record(String sql, Object[] params, long elapsedNanos, DataSource dataSource) {
+        String normalized = normalize(sql);
+        Entry entry = statements.get(normalized);
+        if (entry == null) {
+            if (statements.size() >= maxStatements) {
+                return;
+            }
+            Entry created = new Entry(normalized, origin());
+            entry = statements.putIfAbsent(normalized, created);
+            if (entry == null) {
+                entry = created;
+                log.warn("Slow query ({} ms) from {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), created.origin, normalized);
+                if (explain && normalized.regionMatches(true, 0, "select", 0, 6)) {
+                    explainer.execute(() -> explain(created, sql, params, dataSource));
+                }
+            }
+        }
+        entry.count.increment();
+        entry.totalNanos.add(elapsedNanos);
+        entry.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        entry.lastSeen = System.currentTimeMillis();
+    }
+
+    public List<SlowQueryDTO> getSlowQueries() {
+        List<SlowQueryDTO> result = new ArrayList<>();
+        for (Entry entry : statements.values()) {
+            SlowQueryDTO dto = new SlowQueryDTO();
+            long count = entry.count.sum();
+            dto.setSql(entry.sql);
+            dto.setOrigin(entry.origin);
+            dto.setCount(count);
+            dto.setAvgMs(count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(entry.totalNanos.sum() / count));
+            dto.setMaxMs(TimeUnit.NANOSECONDS.toMillis(entry.maxNanos.get()));
+            dto.setLastSeen(new Date(entry.lastSeen));
+            dto.setFullScan(entry.fullScan);
+            dto.setScannedTables(entry.scannedTables);
+            dto.setPlan(entry.plan);
+            result.add(dto);
+        }
+        // most total time first
+        result.sort(Comparator.comparingLong((SlowQueryDTO q) -> q.getAvgMs() * q.getCount()).reversed());
+        return result;
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("in (?)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    // the repository method (Spring Data proxy) that issued the statement, else the first application frame
+    private static String origin() {
+        return STACK.walk(frames -> {
+            String fallback = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(type)) {
+                    Optional<Class<?>> repository = repositoryInterface(type);
+                    if (repository.isPresent()) {
+                        return repository.get().getSimpleName() + "." + frame.getMethodName();
+                    }
+                } else if (fallback == null && type.getName().startsWith("com.empsys.")
+                        && !type.getName().startsWith("com.empsys.config.") && type != SlowQueryService.class) {
+                    fallback = type.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return fallback != null ? fallback : "unknown";
+        });
+    }
+
+    private static Optional<Class<?>> repositoryInterface(Class<?> proxyType) {
+        for (Class<?> type : proxyType.getInterfaces()) {
+            if (type.getName().startsWith("com.empsys.repository.")) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void explain(Entry entry, String sql, Object[] params, DataSource dataSource) {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i < params.length; i++) {
+                ps.setObject(i, params[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            List<String> scanned = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int typeColumn = column(meta, "type");
+                int tableColumn = column(meta, "table");
+                while (rs.next()) {
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        plan.append(c > 1 ? " | " : "").append(meta.getColumnLabel(c)).append('=').append(rs.getString(c));
+                    }
+                    plan.append('\n');
+                    // MySQL: one row per table, access type ALL means a full scan
+                    if (typeColumn > 0 && "ALL".equalsIgnoreCase(rs.getString(typeColumn))) {
+                        scanned.add(tableColumn > 0 ? rs.getString(tableColumn) : "?");
+                    }
+                }
+            }
+            // H2: a single plan text, e.g. FROM "PUBLIC"."EMPLOYEE" "E1_0" /* PUBLIC.PRIMARY_KEY_7 */
+            Matcher h2 = H2_TABLE_ACCESS.matcher(plan);
+            while (h2.find()) {
+                if (!h2.group(2).contains(":") && h2.group(3) == null) {
+                    scanned.add(h2.group(1));
+                }
+            }
+            entry.plan = plan.toString().trim();
+            entry.scannedTables = scanned;
+            entry.fullScan = !scanned.isEmpty();
+            if (entry.fullScan) {
+                log.warn("Full table scan on {} by {}: {}", scanned, entry.origin, entry.sql);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Could not EXPLAIN {}", entry.sql, ex);
+            entry.plan = "EXPLAIN failed: " + ex.getMessage();
+        }
+    }
+
+    private static int column(ResultSetMetaData meta, String label) throws SQLException {
+        for (int c = 1; c <= meta.getColumnCount(); c++) {
+            if (label.equalsIgnoreCase(meta.getColumnLabel(c))) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        final String sql;
+        final String origin;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        volatile long lastSeen;
+        volatile String plan;
+        volatile Boolean fullScan;
+        volatile List<String> scannedTables;
+
+        Entry(String sql, String origin) {
+            this.sql = sql;
+            this.origin = origin;
+        }
+    }
+}
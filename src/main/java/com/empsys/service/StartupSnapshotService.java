@@ -0,0 +1,247 @@
+package com.empsys.service;
+
+import com.empsys.config.CacheConfig;
+import com.empsys.dto.DepartmentDTO;
+import com.empsys.dto.DesignationDTO;
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.dto.StartupSnapshotDTO;
+import com.empsys.repository.EmployeeStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the reference data and hot employee pages held in the caches on
+ * shutdown and loads them back on boot. Runs as an {@link ApplicationRunner},
+ * so the caches are warm before the application reports itself ready.
+ *
+ * Employee pages are stored as ids only and their rows are read again, in one
+ * query, when they are restored, so no names, emails or phone numbers are
+ * written to disk. The file is readable by its owner only.
+ */
+@Service
+public class StartupSnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupSnapshotService.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeStore employeeStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${empsys.startup.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${empsys.startup.snapshot.path:data/warm-snapshot.json}")
+    private String path;
+
+    @Value("${empsys.startup.snapshot.max-age-minutes:1440}")
+    private long maxAgeMinutes;
+
+    @Value("${empsys.startup.snapshot.max-employee-pages:50}")
+    private int maxEmployeePages;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        // also opens the first pooled connection and primes the Hibernate query path
+        long employeeCount = employeeService.countEmployee();
+        Long maxEmployeeId = employeeService.maxEmployeeId();
+
+        Path file = Paths.get(path);
+        if (!Files.isRegularFile(file)) {
+            log.info("No startup snapshot at {}, starting with cold caches", file.toAbsolutePath());
+            return;
+        }
+
+        StartupSnapshotDTO snapshot;
+        try {
+            snapshot = objectMapper.readValue(file.toFile(), StartupSnapshotDTO.class);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable startup snapshot {}", file.toAbsolutePath(), ex);
+            return;
+        }
+
+        long ageMinutes = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - snapshot.getCreatedAt());
+        if (ageMinutes > maxAgeMinutes) {
+            log.info("Ignoring startup snapshot taken {} minutes ago", ageMinutes);
+            return;
+        }
+
+        cache(CacheConfig.DEPARTMENTS).put(SimpleKey.EMPTY, snapshot.getDepartments());
+        cache(CacheConfig.DESIGNATIONS).put(SimpleKey.EMPTY, snapshot.getDesignations());
+
+        // employee pages are only trusted if no rows were added or removed while we were down
+        // (same count and highest id). The rows are read fresh, but an update that moved a row
+        // to another page is not detectable here, so restored pages get the cache's normal
+        // expireAfterWrite and are reloaded within that window.
+        int pages = 0;
+        if (snapshot.getEmployeeCount() == employeeCount && snapshot.getMaxEmployeeId() != null
+                && snapshot.getMaxEmployeeId().equals(maxEmployeeId)) {
+            Map<Long, EmployeeDTO> employees = employees(snapshot.getEmployeePages());
+            Cache employeePages = cache(CacheConfig.EMPLOYEE_PAGES);
+            for (StartupSnapshotDTO.EmployeePage page : snapshot.getEmployeePages()) {
+                if (page.getSortBy() == null || page.getDirection() == null
+                        || page.getPage() >= CacheConfig.MAX_CACHED_PAGE || page.getSize() > CacheConfig.MAX_CACHED_PAGE_SIZE) {
+                    continue;
+                }
+                List<EmployeeDTO> content = new ArrayList<>(page.getEmployeeIds().size());
+                for (Long empId : page.getEmployeeIds()) {
+                    EmployeeDTO emp = employees.get(empId);
+                    if (emp == null) {
+                        break;
+                    }
+                    content.add(emp);
+                }
+                // an employee of the page was deleted and another added while we were down
+                if (content.size() < page.getEmployeeIds().size()) {
+                    continue;
+                }
+                PageRequest pageable = PageRequest.of(page.getPage(), page.getSize(),
+                        EmployeeService.sort(page.getSortBy(), page.getDirection()));
+                String key = EmployeeService.pageKey(page.getPage(), page.getSize(), page.getSortBy(), page.getDirection());
+                employeePages.put(key, new PageImpl<>(content, pageable, page.getTotalElements()));
+                pages++;
+            }
+        }
+
+        log.info("Warmed caches from startup snapshot ({} departments, {} designations, {} employee pages) in {} ms",
+                snapshot.getDepartments().size(), snapshot.getDesignations().size(), pages,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PreDestroy
+    @SuppressWarnings("unchecked")
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        StartupSnapshotDTO snapshot = new StartupSnapshotDTO();
+        snapshot.setCreatedAt(System.currentTimeMillis());
+
+        List<DepartmentDTO> departments = cache(CacheConfig.DEPARTMENTS).get(SimpleKey.EMPTY, List.class);
+        if (departments != null) {
+            snapshot.setDepartments(departments);
+        }
+        List<DesignationDTO> designations = cache(CacheConfig.DESIGNATIONS).get(SimpleKey.EMPTY, List.class);
+        if (designations != null) {
+            snapshot.setDesignations(designations);
+        }
+
+        Object nativeCache = cache(CacheConfig.EMPLOYEE_PAGES).getNativeCache();
+        Map<Object, Object> cachedPages = nativeCache instanceof com.github.benmanes.caffeine.cache.Cache
+                ? ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap()
+                : nativeCache instanceof Map ? (Map<Object, Object>) nativeCache : Map.of();
+        if (!cachedPages.isEmpty()) {
+            try {
+                snapshot.setEmployeeCount(employeeService.countEmployee());
+                snapshot.setMaxEmployeeId(employeeService.maxEmployeeId());
+            } catch (RuntimeException ex) {
+                // without the fingerprint the pages are never restored, so don't write them
+                log.warn("Could not read the employee count and highest id for the startup snapshot, skipping employee pages", ex);
+                cachedPages = Map.of();
+            }
+        }
+        for (Map.Entry<Object, Object> entry : cachedPages.entrySet()) {
+            if (snapshot.getEmployeePages().size() >= maxEmployeePages) {
+                break;
+            }
+            Page<EmployeeDTO> cached = (Page<EmployeeDTO>) entry.getValue();
+            StartupSnapshotDTO.EmployeePage page = new StartupSnapshotDTO.EmployeePage();
+            page.setKey((String) entry.getKey());
+            page.setPage(cached.getNumber());
+            page.setSize(cached.getSize());
+            Sort.Order order = cached.getSort().iterator().next();
+            page.setSortBy(order.getProperty());
+            page.setDirection(order.getDirection().name());
+            page.setTotalElements(cached.getTotalElements());
+            page.setEmployeeIds(cached.getContent().stream().map(EmployeeDTO::getEmpId).toList());
+            snapshot.getEmployeePages().add(page);
+        }
+
+        // nothing was served (e.g. a CDS training run): keep the previous snapshot
+        if (departments == null && designations == null && snapshot.getEmployeePages().isEmpty()) {
+            return;
+        }
+
+        Path file = Paths.get(path);
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "warm-snapshot", ".tmp");
+            ownerOnly(tmp);
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote startup snapshot to {}", file.toAbsolutePath());
+        } catch (IOException ex) {
+            log.warn("Could not write startup snapshot to {}", file.toAbsolutePath(), ex);
+        }
+    }
+
+    // the rows of every stored page, read with one query
+    private Map<Long, EmployeeDTO> employees(List<StartupSnapshotDTO.EmployeePage> pages) {
+        Set<Long> ids = new LinkedHashSet<>();
+        pages.forEach(page -> ids.addAll(page.getEmployeeIds()));
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return employeeStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(EmployeeDTO::getEmpId, Function.identity()));
+    }
+
+    // rw------- where the file system has POSIX permissions
+    private static void ownerOnly(Path file) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        if (view != null) {
+            view.setPermissions(PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured");
+        }
+        return cache;
+    }
+}
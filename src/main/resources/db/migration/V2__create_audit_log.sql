@@ -0,0 +1,13 @@
+-- ======================================================
+-- audit_log for databases created from db_script.sql before it
+-- contained the table (db_script.sql is the V1 baseline)
+-- ======================================================
+CREATE TABLE IF NOT EXISTS audit_log (
+    audit_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT,
+    action VARCHAR(10) NOT NULL,
+    changes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_audit_entity (entity_type, entity_id)
+);
@@ -0,0 +1,20 @@
+-- ======================================================
+-- Indexes for the employee queries issued by the application
+-- ======================================================
+
+-- hire-date ranges and sortBy=hireDate
+CREATE INDEX idx_employee_hire_date ON employee (hire_date);
+
+-- sortBy=lastName / sortBy=firstName; the tie-breaker is emp_id, which InnoDB
+-- appends to every secondary index, so (last_name) already yields the full
+-- ORDER BY last_name, emp_id without a filesort
+CREATE INDEX idx_employee_last_name ON employee (last_name);
+CREATE INDEX idx_employee_first_name ON employee (first_name);
+
+-- dept_id and desig_id keep the indexes InnoDB creates for their foreign keys,
+-- which serve the constraint checks on department and designation deletes; no
+-- employee query filters or sorts on them
+
+-- NOTE: EmployeeRepository.searchEmployees matches with LIKE '%keyword%', which
+-- no B-tree index can serve; it keeps showing up as a full scan in
+-- GET /api/diagnostics/slow-queries until search moves to a full-text index.
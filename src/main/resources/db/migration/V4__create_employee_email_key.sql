@@ -0,0 +1,12 @@
+-- ======================================================
+-- Employee emails across all shards (empsys.sharding.enabled=true)
+--
+-- Each shard only enforces email uniqueness for its own rows, so the
+-- sharded store claims every email here, in the primary database, before
+-- writing the employee. Emails are stored trimmed and lower-cased.
+-- ======================================================
+CREATE TABLE IF NOT EXISTS employee_email_key (
+    email VARCHAR(150) PRIMARY KEY,
+    emp_id BIGINT NOT NULL,
+    INDEX idx_employee_email_key_emp (emp_id)
+);
@@ -0,0 +1,128 @@
+package com.empsys.controller;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.repository.ReactiveEmployeeRepository;
+import com.empsys.service.ReactiveEmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReactiveEmployeeControllerTests {
+
+	private final ReactiveEmployeeRepository repository = new ReactiveEmployeeRepository();
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		DatabaseClient client = DatabaseClient.create(ConnectionFactories.get(
+				"r2dbc:h2:mem:///reactive-" + UUID.randomUUID() + "?options=MODE=MySQL;DB_CLOSE_DELAY=-1"));
+		for (String sql : List.of(
+				"CREATE TABLE department (dept_id INT PRIMARY KEY AUTO_INCREMENT, dept_name VARCHAR(100) UNIQUE NOT NULL)",
+				"CREATE TABLE designation (desig_id INT PRIMARY KEY AUTO_INCREMENT, desig_name VARCHAR(100) UNIQUE NOT NULL)",
+				"CREATE TABLE employee (emp_id INT PRIMARY KEY AUTO_INCREMENT, first_name VARCHAR(100) NOT NULL,"
+						+ " last_name VARCHAR(100), email VARCHAR(150) UNIQUE NOT NULL, phone VARCHAR(20), hire_date DATE,"
+						+ " dept_id INT, desig_id INT)",
+				"INSERT INTO department VALUES (1, 'Finance')",
+				"INSERT INTO designation VALUES (1, 'Analyst')",
+				"INSERT INTO employee VALUES (1, 'Asha', 'Rao', 'asha@example.com', '555-0101', '2020-01-15', 1, 1)",
+				"INSERT INTO employee VALUES (2, 'Bala', 'Iyer', 'bala@example.com', '555-0102', '2021-06-01', 1, 1)",
+				// no department yet
+				"INSERT INTO employee VALUES (3, 'Chitra', 'Nair', 'chitra@example.com', '555-0103', NULL, NULL, 1)")) {
+			client.sql(sql).then().block();
+		}
+		ReflectionTestUtils.setField(repository, "reactiveDatabaseClient", client);
+		ReflectionTestUtils.setField(repository, "fetchSize", 2);
+		ReactiveEmployeeService service = new ReactiveEmployeeService();
+		ReflectionTestUtils.setField(service, "reactiveEmployeeRepository", repository);
+		ReactiveEmployeeController controller = new ReactiveEmployeeController();
+		ReflectionTestUtils.setField(controller, "reactiveEmployeeService", service);
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void readsEmployeeRows() {
+		EmployeeDTO asha = repository.findById(1L).block();
+
+		assertEquals("Asha", asha.getFirstName());
+		assertEquals("Rao", asha.getLastName());
+		assertEquals("asha@example.com", asha.getEmail());
+		assertEquals("555-0101", asha.getPhone());
+		assertEquals(Date.valueOf("2020-01-15").getTime(), asha.getHireDate().getTime());
+		assertEquals(1L, asha.getDeptId());
+		assertEquals(1L, asha.getDesigId());
+		EmployeeDTO chitra = repository.findById(3L).block();
+		assertNull(chitra.getHireDate());
+		assertNull(chitra.getDeptId());
+		assertNull(repository.findById(99L).block());
+	}
+
+	@Test
+	void pagesAndSortsEmployees() throws Exception {
+		mvc.perform(asyncDispatch(async("/api/reactive/employees?page=0&size=2&sortBy=firstName&direction=desc")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].firstName", contains("Chitra", "Bala")))
+				.andExpect(jsonPath("$.totalElements").value(3));
+		mvc.perform(asyncDispatch(async("/api/reactive/employees?page=1&size=2")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].empId", contains(3)));
+		mvc.perform(asyncDispatch(async("/api/reactive/employees/2")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.email").value("bala@example.com"));
+	}
+
+	@Test
+	void searchLeavesOutEmployeesWithoutADepartmentOrDesignation() throws Exception {
+		// matches the department name of Asha and Bala, case-insensitively
+		mvc.perform(asyncDispatch(async("/api/reactive/employees/search?keyword=FINANCE")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].firstName", contains("Asha", "Bala")))
+				.andExpect(jsonPath("$.totalElements").value(2));
+		// an inner join, like the blocking search
+		mvc.perform(asyncDispatch(async("/api/reactive/employees/search?keyword=chitra")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content").isEmpty())
+				.andExpect(jsonPath("$.totalElements").value(0));
+	}
+
+	@Test
+	void exportsOneJsonLinePerEmployeeInIdOrder() throws Exception {
+		MvcResult result = async("/api/reactive/employees/export");
+		// the lines are written by the R2DBC threads after the request thread has returned
+		result.getAsyncResult(5000);
+		String body = result.getResponse().getContentAsString();
+		assertEquals("application/x-ndjson", result.getResponse().getContentType());
+		ObjectMapper objectMapper = new ObjectMapper();
+		List<Long> ids = Arrays.stream(body.split("\n"))
+				.map(line -> {
+					try {
+						return objectMapper.readValue(line, EmployeeDTO.class).getEmpId();
+					} catch (Exception ex) {
+						throw new AssertionError(line, ex);
+					}
+				})
+				.toList();
+		assertEquals(List.of(1L, 2L, 3L), ids);
+	}
+
+	// the controller returns before the database answers, so every request starts async processing
+	private MvcResult async(String uri) throws Exception {
+		return mvc.perform(get(uri)).andExpect(request().asyncStarted()).andReturn();
+	}
+}
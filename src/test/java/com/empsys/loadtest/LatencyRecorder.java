@@ -0,0 +1,64 @@
+package com.empsys.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every latency sample of one endpoint in a stage; a few hundred
+ * thousand samples per stage are cheap to sort for exact percentiles.
+ */
+final class LatencyRecorder {
+
+    private final String endpoint;
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long nanos, boolean ok) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized LoadReport.EndpointResult summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new LoadReport.EndpointResult(endpoint, size, errors, size / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(size == 0 ? 0 : sorted[size - 1]));
+    }
+
+    static LatencyRecorder merge(String endpoint, Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder all = new LatencyRecorder(endpoint);
+        for (LatencyRecorder recorder : recorders) {
+            synchronized (recorder) {
+                for (int i = 0; i < recorder.size; i++) {
+                    all.record(recorder.samples[i], true);
+                }
+                all.errors += recorder.errors;
+            }
+        }
+        return all;
+    }
+
+    // nearest-rank percentile
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.empsys.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one load-test run, written as JSON so a later run can be compared
+ * against it with {@code -Dloadtest.baseline=<file>}.
+ */
+record LoadReport(String startedAt, String target, long seed, List<Stage> stages) {
+
+    static final String ALL = "ALL";
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // one offered request rate held for a number of seconds
+    record Stage(int rate, int seconds, long dropped, List<EndpointResult> endpoints) {
+    }
+
+    record EndpointResult(String endpoint, long requests, long errors, double throughput,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    Path write(Path dir, String fileName) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(fileName);
+        JSON.writeValue(file.toFile(), this);
+        return file;
+    }
+
+    static LoadReport read(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), LoadReport.class);
+    }
+
+    void print(PrintStream out) {
+        for (Stage stage : stages) {
+            out.printf("%nOffered %d req/s for %d s, %d requests dropped (too many in flight)%n",
+                    stage.rate(), stage.seconds(), stage.dropped());
+            out.printf("%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (EndpointResult r : stage.endpoints()) {
+                out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", r.endpoint(), r.requests(), r.errors(),
+                        r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs());
+            }
+        }
+    }
+
+    /**
+     * Prints this run next to the baseline and returns the number of regressions:
+     * p99 or p99.9 up, or throughput down, by more than {@code tolerance}
+     * (ignoring differences under {@code noiseMs}), or a higher error rate.
+     */
+    int compare(LoadReport baseline, double tolerance, double noiseMs, PrintStream out) {
+        Map<String, EndpointResult> before = new HashMap<>();
+        for (Stage stage : baseline.stages()) {
+            for (EndpointResult r : stage.endpoints()) {
+                before.put(stage.rate() + "|" + r.endpoint(), r);
+            }
+        }
+        int regressions = 0;
+        out.printf("%nCompared with baseline from %s (tolerance %.0f%%)%n", baseline.startedAt(), tolerance * 100);
+        out.printf("%-8s %-32s %18s %18s %18s  %s%n", "req/s", "endpoint", "p99 ms", "p99.9 ms", "throughput", "");
+        for (Stage stage : stages) {
+            for (EndpointResult now : stage.endpoints()) {
+                EndpointResult then = before.get(stage.rate() + "|" + now.endpoint());
+                if (then == null) {
+                    continue;
+                }
+                boolean worse = slower(now.p99Ms(), then.p99Ms(), tolerance, noiseMs)
+                        || slower(now.p999Ms(), then.p999Ms(), tolerance, noiseMs)
+                        || now.throughput() < then.throughput() * (1 - tolerance)
+                        || errorRate(now) > errorRate(then) + 0.01;
+                if (worse) {
+                    regressions++;
+                }
+                out.printf("%-8d %-32s %8.2f -> %7.2f %8.2f -> %7.2f %8.1f -> %7.1f  %s%n", stage.rate(), now.endpoint(),
+                        then.p99Ms(), now.p99Ms(), then.p999Ms(), now.p999Ms(), then.throughput(), now.throughput(),
+                        worse ? "REGRESSION" : "ok");
+            }
+        }
+        return regressions;
+    }
+
+    private static boolean slower(double now, double then, double tolerance, double noiseMs) {
+        return now > then * (1 + tolerance) && now - then > noiseMs;
+    }
+
+    private static double errorRate(EndpointResult r) {
+        return r.requests() == 0 ? 0 : (double) r.errors() / r.requests();
+    }
+}
@@ -0,0 +1,205 @@
+package com.empsys.loadtest;
+
+import com.empsys.EmployeeSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator driven by the Postman collection.
+ *
+ * Requests are started on a fixed schedule for each offered rate whether or not
+ * earlier ones have returned, and latency is measured from the scheduled start,
+ * so a stalled server shows up as latency instead of as a lower request rate.
+ * Without {@code loadtest.target} the application is started in this JVM with
+ * the {@code loadtest} profile: embedded H2 migrated by Flyway like production and
+ * seeded by {@code loadtest/db/afterMigrate.sql}.
+ *
+ * Run with {@code mvn -Ploadtest -DskipTests verify}; see the profile in pom.xml
+ * for the available {@code loadtest.*} properties. Exits with status 1 when the
+ * run regresses against {@code loadtest.baseline}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path collectionFile = Path.of(System.getProperty("loadtest.collection", "api.json"));
+        String scenarioFile = System.getProperty("loadtest.scenario", "");
+        String target = System.getProperty("loadtest.target", "");
+        int[] rates = Arrays.stream(System.getProperty("loadtest.rates", "50,100,200").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int stageSeconds = Integer.getInteger("loadtest.stage-seconds", 20);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+        long seed = Long.getLong("loadtest.seed", 42);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        String baseline = System.getProperty("loadtest.baseline", "");
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+        double noiseMs = Double.parseDouble(System.getProperty("loadtest.noise-ms", "2"));
+
+        Scenario scenario = Scenario.of(PostmanCollection.read(collectionFile), scenario(scenarioFile));
+
+        ConfigurableApplicationContext app = null;
+        if (target.isEmpty()) {
+            app = new SpringApplicationBuilder(EmployeeSystemApplication.class).profiles("loadtest").run(args);
+            target = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        int regressions = 0;
+        try {
+            Run run = new Run(scenario, target, maxInFlight, seed);
+            System.out.printf("Load test against %s, mix: %s%n", target, mix(scenario));
+            if (warmupSeconds > 0) {
+                run.stage(rates[0], warmupSeconds);
+            }
+            String startedAt = LocalDateTime.now().withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            List<LoadReport.Stage> stages = new ArrayList<>();
+            for (int rate : rates) {
+                resetPeaks();
+                stages.add(run.stage(rate, stageSeconds));
+                printPeaks(rate);
+            }
+            LoadReport report = new LoadReport(startedAt, target, seed, stages);
+            report.print(System.out);
+            Path file = report.write(reportDir,
+                    "report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            System.out.printf("%nReport written to %s%n", file);
+            if (!baseline.isEmpty()) {
+                regressions = report.compare(LoadReport.read(Path.of(baseline)), tolerance, noiseMs, System.out);
+                System.out.printf("%d regression(s)%n", regressions);
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static void resetPeaks() {
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    // whole JVM, so with an in-process application it includes the generator's own threads and heap;
+    // the heap peak is summed over the pools, which may peak at different times, so it is an upper bound
+    private static void printPeaks(int rate) {
+        long heapPeak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        long heapMax = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        System.out.printf("%d req/s: peak heap %d of %d MB, peak %d threads%n", rate, heapPeak >> 20, heapMax >> 20,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    private static Properties scenario(String file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = file.isEmpty()
+                ? LoadTest.class.getResourceAsStream("/loadtest/scenarios.properties")
+                : Files.newInputStream(Path.of(file))) {
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return properties;
+    }
+
+    private static String mix(Scenario scenario) {
+        int total = scenario.steps().stream().mapToInt(Scenario.Step::weight).sum();
+        StringBuilder mix = new StringBuilder();
+        for (Scenario.Step step : scenario.steps()) {
+            mix.append(mix.length() > 0 ? ", " : "").append(step.name()).append(' ')
+                    .append(Math.round(step.weight() * 100.0 / total)).append('%');
+        }
+        return mix.toString();
+    }
+
+    private static final class Run {
+        private final Scenario scenario;
+        private final String target;
+        private final int maxInFlight;
+        // one generator thread draws steps and ids, so a seed replays the same request sequence
+        private final Random random;
+        private final AtomicLong seq = new AtomicLong();
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Run(Scenario scenario, String target, int maxInFlight, long seed) {
+            this.scenario = scenario;
+            this.target = target;
+            this.maxInFlight = maxInFlight;
+            this.random = new Random(seed);
+        }
+
+        LoadReport.Stage stage(int rate, int seconds) throws InterruptedException {
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            scenario.steps().forEach(step -> recorders.put(step.name(), new LatencyRecorder(step.name())));
+            AtomicInteger inFlight = new AtomicInteger();
+            long dropped = 0;
+
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(seconds);
+            for (long i = 0; ; i++) {
+                long intended = start + i * interval;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario.Step step = scenario.pick(random);
+                if (inFlight.get() >= maxInFlight) {
+                    dropped++;
+                    continue;
+                }
+                HttpRequest request = Scenario.request(step, target, seq.incrementAndGet(), random);
+                LatencyRecorder recorder = recorders.get(step.name());
+                inFlight.incrementAndGet();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                    recorder.record(System.nanoTime() - intended, ex == null && response.statusCode() < 400);
+                    inFlight.decrementAndGet();
+                });
+            }
+            // let the stragglers of this stage finish before the next rate starts
+            long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+
+            List<LoadReport.EndpointResult> endpoints = new ArrayList<>();
+            endpoints.add(LatencyRecorder.merge(LoadReport.ALL, recorders.values()).summarize(seconds));
+            recorders.values().forEach(recorder -> endpoints.add(recorder.summarize(seconds)));
+            return new LoadReport.Stage(rate, seconds, dropped, endpoints);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.empsys.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the requests of a Postman v2.1 collection such as {@code api.json},
+ * flattening folders. Only the path and query of each URL are kept; the load
+ * test sends them to its own target.
+ */
+final class PostmanCollection {
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^(?:[a-zA-Z]+://)?[^/]*");
+    private static final Pattern LEADING_SYMBOLS = Pattern.compile("^[^\\p{L}\\p{N}]+");
+
+    record Request(String name, String method, String path, Map<String, String> headers, String body) {
+    }
+
+    private PostmanCollection() {
+    }
+
+    static List<Request> read(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        List<Request> requests = new ArrayList<>();
+        collect(root.path("item"), requests);
+        return requests;
+    }
+
+    private static void collect(JsonNode items, List<Request> requests) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.get("item"), requests);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (JsonNode header : request.path("header")) {
+                if (!header.path("disabled").asBoolean()) {
+                    headers.put(header.path("key").asText(), header.path("value").asText());
+                }
+            }
+            JsonNode body = request.path("body");
+            String rawBody = "raw".equals(body.path("mode").asText()) ? body.path("raw").asText() : null;
+
+            requests.add(new Request(name(item.path("name").asText()), request.path("method").asText("GET"),
+                    path(raw), headers, rawBody));
+        }
+    }
+
+    // "http://localhost:8585/api/employees/1" -> "/api/employees/1"
+    static String path(String rawUrl) {
+        String path = SCHEME_AND_HOST.matcher(rawUrl.trim()).replaceFirst("");
+        return path.isEmpty() ? "/" : path;
+    }
+
+    // request names in api.json start with an emoji, scenario files refer to them without it
+    static String name(String name) {
+        return LEADING_SYMBOLS.matcher(name).replaceFirst("").trim();
+    }
+}
@@ -0,0 +1,122 @@
+package com.empsys.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Weighted mix of requests taken from the collection plus the overrides of a
+ * scenario file ({@code src/test/resources/loadtest/scenarios.properties}):
+ * <ul>
+ *   <li>{@code weight.<name>} relative share of the request, 0 or missing leaves it out</li>
+ *   <li>{@code url.<name>} / {@code body.<name>} replace the path or body from the collection</li>
+ *   <li>{@code request.<name>=METHOD /path} adds a request that is not in the collection</li>
+ * </ul>
+ * Paths and bodies may use {@code {{seq}}}, a counter unique within the run, and
+ * {@code {{id:N}}}, a random id between 1 and N.
+ */
+final class Scenario {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(seq|id:(\\d+))}}");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    record Step(String name, String method, String path, Map<String, String> headers, String body, int weight) {
+    }
+
+    private final List<Step> steps;
+    private final int[] cumulativeWeights;
+
+    private Scenario(List<Step> steps) {
+        this.steps = steps;
+        this.cumulativeWeights = new int[steps.size()];
+        int total = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            total += steps.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static Scenario of(List<PostmanCollection.Request> collection, Properties config) {
+        Map<String, PostmanCollection.Request> requests = new LinkedHashMap<>();
+        collection.forEach(request -> requests.put(request.name(), request));
+        for (String key : config.stringPropertyNames()) {
+            if (key.startsWith("request.")) {
+                String name = key.substring("request.".length());
+                String[] methodAndPath = config.getProperty(key).trim().split("\\s+", 2);
+                requests.put(name, new PostmanCollection.Request(name, methodAndPath[0], methodAndPath[1], Map.of(), null));
+            }
+        }
+
+        List<Step> steps = new ArrayList<>();
+        for (PostmanCollection.Request request : requests.values()) {
+            int weight = Integer.parseInt(config.getProperty("weight." + request.name(), "0").trim());
+            if (weight > 0) {
+                steps.add(new Step(request.name(), request.method(),
+                        config.getProperty("url." + request.name(), request.path()),
+                        request.headers(),
+                        config.getProperty("body." + request.name(), request.body()),
+                        weight));
+            }
+        }
+        for (String key : config.stringPropertyNames()) {
+            String name = key.substring(key.indexOf('.') + 1);
+            if (key.startsWith("weight.") && !requests.containsKey(name)) {
+                throw new IllegalArgumentException("Scenario weights unknown request '" + name + "', known: " + requests.keySet());
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Scenario gives no request a weight above 0");
+        }
+        return new Scenario(steps);
+    }
+
+    List<Step> steps() {
+        return steps;
+    }
+
+    Step pick(Random random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return steps.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    static HttpRequest request(Step step, String target, long seq, Random random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + render(step.path(), seq, random)))
+                .timeout(TIMEOUT);
+        step.headers().forEach(builder::header);
+        if (step.body() != null && !step.body().isEmpty()) {
+            if (!step.headers().containsKey("Content-Type")) {
+                builder.header("Content-Type", "application/json");
+            }
+            builder.method(step.method(), HttpRequest.BodyPublishers.ofString(render(step.body(), seq, random)));
+        } else {
+            builder.method(step.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    static String render(String template, long seq, Random random) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder out = new StringBuilder();
+        while (matcher.find()) {
+            String value = matcher.group(2) == null
+                    ? Long.toString(seq)
+                    : Long.toString(1 + random.nextInt(Integer.parseInt(matcher.group(2))));
+            matcher.appendReplacement(out, value);
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+}
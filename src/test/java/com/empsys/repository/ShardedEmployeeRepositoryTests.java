@@ -0,0 +1,308 @@
+package com.empsys.repository;
+
+import com.empsys.dto.EmployeeDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedEmployeeRepositoryTests {
+
+	private static final long BLOCK = 1000;
+
+	private static final long MAX_OFFSET = 20;
+
+	private final String run = UUID.randomUUID().toString();
+
+	// the primary database, holding employee_email_key
+	private JdbcTemplate primary;
+
+	private ShardedEmployeeRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:primary-" + run + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+		primary.execute(new ClassPathResource("db/migration/V4__create_employee_email_key.sql")
+				.getContentAsString(StandardCharsets.UTF_8));
+		repository = open("department");
+		repository.initSchema();
+	}
+
+	private ShardedEmployeeRepository open(String strategy) {
+		return open(strategy, 4, 100);
+	}
+
+	private ShardedEmployeeRepository open(String strategy, int fanOutThreads, int fanOutQueueLimit) {
+		List<DataSource> shards = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			shards.add(new DriverManagerDataSource("jdbc:h2:mem:shard" + i + "-" + run + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+		}
+		return new ShardedEmployeeRepository(shards, primary, strategy, BLOCK, MAX_OFFSET, fanOutThreads, fanOutQueueLimit);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		repository.close();
+	}
+
+	@Test
+	void placesByDepartmentAndRoutesIdLookupsToOneShard() {
+		EmployeeDTO a = repository.insert(employee("Asha", "asha@example.com", 1L));
+		EmployeeDTO b = repository.insert(employee("Bala", "bala@example.com", 2L));
+		EmployeeDTO c = repository.insert(employee("Chetan", "chetan@example.com", 3L));
+
+		assertEquals(1, repository.shardForId(a.getEmpId()));
+		assertEquals(2, repository.shardForId(b.getEmpId()));
+		assertEquals(0, repository.shardForId(c.getEmpId()));
+		assertEquals("bala@example.com", repository.findById(b.getEmpId()).orElseThrow().getEmail());
+		assertTrue(repository.findById(BLOCK + 999).isEmpty());
+	}
+
+	@Test
+	void idsOutsideEveryBlockAreNotFound() {
+		EmployeeDTO ghost = employee("Ghost", "ghost@example.com", 1L);
+		for (long id : new long[] { 0, -5, 3 * BLOCK + 1, Long.MAX_VALUE }) {
+			assertEquals(-1, repository.shardForId(id));
+			assertTrue(repository.findById(id).isEmpty());
+			ghost.setEmpId(id);
+			assertFalse(repository.update(ghost));
+			assertFalse(repository.deleteById(id));
+		}
+	}
+
+	@Test
+	void mergesPagesAcrossShardsInSortOrder() {
+		String[] names = { "Kiran", "anil", "Meera", "Dev", "zoya", "Bhavna", "Farah", "Ishaan", "Chitra", "Yash" };
+		for (int i = 0; i < names.length; i++) {
+			repository.insert(employee(names[i], names[i].toLowerCase() + "@example.com", (long) i));
+		}
+
+		Sort byName = Sort.by(Sort.Direction.ASC, "firstName").and(Sort.by(Sort.Direction.ASC, "empId"));
+		Page<EmployeeDTO> first = repository.findAll(PageRequest.of(0, 4, byName));
+		Page<EmployeeDTO> second = repository.findAll(PageRequest.of(1, 4, byName));
+		Page<EmployeeDTO> last = repository.findAll(PageRequest.of(2, 4, byName));
+
+		assertEquals(10, first.getTotalElements());
+		assertEquals(List.of("anil", "Bhavna", "Chitra", "Dev"), firstNames(first));
+		assertEquals(List.of("Farah", "Ishaan", "Kiran", "Meera"), firstNames(second));
+		assertEquals(List.of("Yash", "zoya"), firstNames(last));
+
+		Sort byNameDesc = Sort.by(Sort.Direction.DESC, "firstName").and(Sort.by(Sort.Direction.DESC, "empId"));
+		assertEquals(List.of("zoya", "Yash", "Meera"), firstNames(repository.findAll(PageRequest.of(0, 3, byNameDesc))));
+	}
+
+	@Test
+	void mergeOrderDoesNotDependOnTheShardCollation() {
+		// case-sensitive H2 shards; lower-cased, "_ops" sorts before "aditi" and "émile" after "zed"
+		String[] names = { "zara", "Émile", "_ops", "Zed", "emma", "Aditi" };
+		for (int i = 0; i < names.length; i++) {
+			repository.insert(employee(names[i], "n" + i + "@example.com", (long) i));
+		}
+
+		Sort byName = Sort.by(Sort.Direction.ASC, "firstName");
+		assertEquals(List.of("_ops", "Aditi", "emma", "zara"), firstNames(repository.findAll(PageRequest.of(0, 4, byName))));
+		assertEquals(List.of("Zed", "Émile"), firstNames(repository.findAll(PageRequest.of(1, 4, byName))));
+	}
+
+	@Test
+	void searchAndCountFanOutToEveryShard() {
+		repository.insert(employee("Priya", "priya@example.com", 1L));
+		repository.insert(employee("Rahul", "rahul@example.com", 2L));
+		repository.insert(employee("Priyanka", "pk@example.com", 3L));
+		repository.insert(employee("Sam", "sam@example.com", 4L));
+		EmployeeDTO noDesignation = employee("Priyam", "priyam@example.com", 1L);
+		noDesignation.setDesigId(null);
+		repository.insert(noDesignation);
+
+		assertEquals(5, repository.count());
+
+		Sort byId = Sort.by("empId");
+		// an employee without a designation is not found, as with the inner joins on the JPA path
+		Page<EmployeeDTO> byKeyword = repository.search("PRIYA", List.of(), List.of(), PageRequest.of(0, 10, byId));
+		assertEquals(List.of("Priyanka", "Priya"), firstNames(byKeyword));
+
+		Page<EmployeeDTO> byDepartment = repository.search("nomatch", List.of(4L), List.of(), PageRequest.of(0, 10, byId));
+		assertEquals(List.of("Sam"), firstNames(byDepartment));
+	}
+
+	@Test
+	void updateAndDeleteStayOnTheOwningShard() {
+		EmployeeDTO emp = repository.insert(employee("Neha", "neha@example.com", 2L));
+
+		emp.setPhone("9876543210");
+		assertTrue(repository.update(emp));
+		assertEquals("9876543210", repository.findById(emp.getEmpId()).orElseThrow().getPhone());
+
+		assertTrue(repository.deleteById(emp.getEmpId()));
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void hireDatesComeFromEveryShardAndSkipMissingOnes() {
+		EmployeeDTO a = employee("Asha", "asha@example.com", 1L);
+		a.setHireDate(Date.valueOf("2021-03-04"));
+		a = repository.insert(a);
+		EmployeeDTO b = employee("Bala", "bala@example.com", 2L);
+		b.setHireDate(Date.valueOf("2022-05-06"));
+		b = repository.insert(b);
+		repository.insert(employee("Chetan", "chetan@example.com", 3L));
+
+		List<Object[]> rows = new ArrayList<>(repository.findAllHireDates());
+		rows.sort((x, y) -> Long.compare((Long) x[0], (Long) y[0]));
+		assertEquals(2, rows.size());
+		assertEquals(a.getEmpId(), rows.get(0)[0]);
+		assertEquals(Date.valueOf("2021-03-04"), rows.get(0)[1]);
+		assertEquals(b.getEmpId(), rows.get(1)[0]);
+		assertEquals(Date.valueOf("2022-05-06"), rows.get(1)[1]);
+	}
+
+	@Test
+	void instancesSharingShardsAllocateDistinctIds() throws Exception {
+		ShardedEmployeeRepository other = open("department");
+		try {
+			EmployeeDTO a = repository.insert(employee("Asha", "asha@example.com", 1L));
+			EmployeeDTO b = other.insert(employee("Bala", "bala@example.com", 1L));
+			EmployeeDTO c = repository.insert(employee("Chetan", "chetan@example.com", 1L));
+
+			assertEquals(List.of(BLOCK + 1, BLOCK + 2, BLOCK + 3), List.of(a.getEmpId(), b.getEmpId(), c.getEmpId()));
+		} finally {
+			other.close();
+		}
+	}
+
+	@Test
+	void idRangeStrategyMovesOnWhenABlockIsUsedUp() throws Exception {
+		ShardedEmployeeRepository byRange = open("id-range");
+		try {
+			for (int i = 0; i < BLOCK; i++) {
+				byRange.insert(employee("E" + i, "e" + i + "@example.com", null));
+			}
+			EmployeeDTO next = byRange.insert(employee("Next", "next@example.com", null));
+
+			assertEquals(BLOCK + 1, next.getEmpId());
+			assertEquals(1, byRange.shardForId(next.getEmpId()));
+		} finally {
+			byRange.close();
+		}
+	}
+
+	@Test
+	void rejectsDeepPagesAndSortsUnsortedPagesById() {
+		for (int i = 0; i < 4; i++) {
+			repository.insert(employee("E" + i, "e" + i + "@example.com", (long) i));
+		}
+
+		ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+				() -> repository.findAll(PageRequest.of(3, 10, Sort.by("empId"))));
+		assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+		// the last page that may still be read
+		assertEquals(0, repository.findAll(PageRequest.of(2, 10, Sort.by("empId"))).getNumberOfElements());
+
+		Page<EmployeeDTO> unsorted = repository.findAll(PageRequest.of(0, 10));
+		List<Long> ids = unsorted.getContent().stream().map(EmployeeDTO::getEmpId).toList();
+		assertEquals(ids.stream().sorted().toList(), ids);
+		assertEquals(4, ids.size());
+	}
+
+	@Test
+	void emailsAreUniqueAcrossShards() {
+		EmployeeDTO asha = repository.insert(employee("Asha", "asha@example.com", 1L));
+		EmployeeDTO bala = repository.insert(employee("Bala", "bala@example.com", 2L));
+
+		// a different shard, and a different case
+		assertConflict(() -> repository.insert(employee("Asha", " ASHA@example.com", 2L)));
+		bala.setEmail("Asha@Example.com");
+		assertConflict(() -> repository.update(bala));
+		assertEquals(2, repository.count());
+		assertEquals("bala@example.com", repository.findById(bala.getEmpId()).orElseThrow().getEmail());
+
+		// an employee keeps its own email, and gives up the old one when it changes
+		asha.setPhone("9876543210");
+		assertTrue(repository.update(asha));
+		asha.setEmail("asha@new.com");
+		assertTrue(repository.update(asha));
+		bala.setEmail("asha@example.com");
+		assertTrue(repository.update(bala));
+
+		assertTrue(repository.deleteById(bala.getEmpId()));
+		assertNotNull(repository.insert(employee("Asha", "asha@example.com", 3L)).getEmpId());
+		assertEquals(2, primary.queryForObject("SELECT COUNT(*) FROM employee_email_key", Integer.class));
+	}
+
+	@Test
+	void syncAddsMissingEmailKeysAndRefusesDuplicates() {
+		repository.insert(employee("Asha", "asha@example.com", 1L));
+		repository.insert(employee("Bala", "bala@example.com", 2L));
+		primary.update("DELETE FROM employee_email_key WHERE email = 'bala@example.com'");
+
+		assertEquals(1, repository.syncEmailKeys());
+		assertConflict(() -> repository.insert(employee("Bala", "bala@example.com", 1L)));
+
+		// written to a shard directly, as before the key table existed
+		new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:shard0-" + run + ";MODE=MySQL;DB_CLOSE_DELAY=-1"))
+				.update("INSERT INTO employee (emp_id, first_name, email) VALUES (999, 'Copy', 'Bala@example.com')");
+		IllegalStateException ex = assertThrows(IllegalStateException.class, repository::syncEmailKeys);
+		assertTrue(ex.getMessage().contains("bala@example.com"));
+	}
+
+	@Test
+	void turnsRequestsAwayWhenTheFanOutQueueIsFull() throws Exception {
+		ShardedEmployeeRepository busy = open("department", 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			ThreadPoolExecutor fanOut = (ThreadPoolExecutor) ReflectionTestUtils.getField(busy, "fanOut");
+			// one query running and one waiting fill the pool
+			fanOut.execute(() -> {
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			fanOut.execute(() -> { });
+
+			ResponseStatusException ex = assertThrows(ResponseStatusException.class, busy::count);
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+		} finally {
+			release.countDown();
+			busy.close();
+		}
+	}
+
+	private static void assertConflict(Runnable write) {
+		ResponseStatusException ex = assertThrows(ResponseStatusException.class, write::run);
+		assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+	}
+
+	private static EmployeeDTO employee(String firstName, String email, Long deptId) {
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setFirstName(firstName);
+		dto.setEmail(email);
+		dto.setDeptId(deptId);
+		dto.setDesigId(1L);
+		return dto;
+	}
+
+	private static List<String> firstNames(Page<EmployeeDTO> page) {
+		return page.getContent().stream().map(EmployeeDTO::getFirstName).toList();
+	}
+}
@@ -0,0 +1,157 @@
+package com.empsys.service;
+
+import com.empsys.dto.DepartmentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuditServiceTests {
+
+	@TempDir
+	Path dir;
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	// every batch handed to batchUpdate, as the rows it would insert
+	private final List<List<Object[]>> batches = new ArrayList<>();
+	private AuditService audit;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		audit = new AuditService();
+		ReflectionTestUtils.setField(audit, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(audit, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(audit, "enabled", true);
+		ReflectionTestUtils.setField(audit, "queueCapacity", 100);
+		ReflectionTestUtils.setField(audit, "batchSize", 2);
+		ReflectionTestUtils.setField(audit, "durability", "async");
+		ReflectionTestUtils.setField(audit, "maxRetries", 2);
+		ReflectionTestUtils.setField(audit, "retryBackoffMs", 1L);
+		ReflectionTestUtils.setField(audit, "spillPath", dir.resolve("spill.jsonl").toString());
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(call -> {
+			batches.add(new ArrayList<>((List<Object[]>) call.getArgument(1)));
+			return new int[0];
+		});
+	}
+
+	@Test
+	void recordsOnlyTheFieldsThatChanged() {
+		audit.recordUpdate(AuditService.DEPARTMENT, 1L, department(1L, "Finance"), department(1L, "Treasury"));
+		audit.recordUpdate(AuditService.DEPARTMENT, 1L, department(1L, "Treasury"), department(1L, "Treasury"));
+		audit.flush();
+
+		assertEquals(1, batches.size());
+		Object[] row = batches.get(0).get(0);
+		assertEquals("DEPARTMENT", row[0]);
+		assertEquals(1L, row[1]);
+		assertEquals("UPDATE", row[2]);
+		assertEquals("{\"deptName\":{\"old\":\"Finance\",\"new\":\"Treasury\"}}", row[3]);
+	}
+
+	@Test
+	void asyncRecordsWaitForTheWriterAndGoOutInBatches() {
+		for (long id = 1; id <= 5; id++) {
+			audit.recordCreate(AuditService.DEPARTMENT, id, department(id, "D" + id));
+		}
+		verifyNoInteractions(jdbcTemplate);
+
+		audit.flush();
+
+		assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+	}
+
+	@Test
+	void aFullQueueIsFlushedByTheCaller() {
+		ReflectionTestUtils.setField(audit, "queueCapacity", 2);
+		audit.recordCreate(AuditService.DEPARTMENT, 1L, department(1L, "A"));
+		audit.recordCreate(AuditService.DEPARTMENT, 2L, department(2L, "B"));
+		assertTrue(batches.isEmpty());
+
+		audit.recordCreate(AuditService.DEPARTMENT, 3L, department(3L, "C"));
+
+		// one batch only, the caller does not drain the whole queue
+		assertEquals(1, batches.size());
+		assertEquals(2, batches.get(0).size());
+	}
+
+	@Test
+	void syncRecordsAreWrittenBeforeTheCallReturns() {
+		ReflectionTestUtils.setField(audit, "durability", "sync");
+
+		audit.recordDelete(AuditService.DEPARTMENT, 1L, department(1L, "Finance"));
+
+		assertEquals(1, batches.size());
+		assertEquals("DELETE", batches.get(0).get(0)[2]);
+	}
+
+	@Test
+	void retriesAFailedBatch() {
+		doThrow(new DataAccessResourceFailureException("down"))
+				.doAnswer(call -> new int[0])
+				.when(jdbcTemplate).batchUpdate(anyString(), anyList());
+		audit.recordCreate(AuditService.DEPARTMENT, 1L, department(1L, "Finance"));
+
+		audit.flush();
+
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+		assertFalse(Files.exists(dir.resolve("spill.jsonl")));
+	}
+
+	@Test
+	void spillsWhenRetriesRunOutAndFailsSyncCallers() throws Exception {
+		ReflectionTestUtils.setField(audit, "durability", "sync");
+		doThrow(new DataAccessResourceFailureException("down")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+		ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+				() -> audit.recordCreate(AuditService.DEPARTMENT, 1L, department(1L, "Finance")));
+
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, ex.getStatusCode());
+		verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+		List<String> spilled = Files.readAllLines(dir.resolve("spill.jsonl"), StandardCharsets.UTF_8);
+		assertEquals(1, spilled.size());
+		assertTrue(spilled.get(0).contains("\"deptName\":{\"old\":null,\"new\":\"Finance\"}"));
+	}
+
+	@Test
+	void loadsSpilledEventsOnTheNextStart() throws Exception {
+		doThrow(new DataAccessResourceFailureException("down")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+		audit.recordCreate(AuditService.DEPARTMENT, 1L, department(1L, "Finance"));
+		audit.recordDelete(AuditService.DEPARTMENT, 2L, department(2L, "Sales"));
+		audit.flush();
+		assertTrue(Files.exists(dir.resolve("spill.jsonl")));
+
+		reset(jdbcTemplate);
+		setUp();
+		audit.loadSpill();
+
+		assertEquals(1, batches.size());
+		assertEquals(List.of("CREATE", "DELETE"), batches.get(0).stream().map(row -> row[2]).toList());
+		assertEquals(2L, batches.get(0).get(1)[1]);
+		assertTrue(((String) batches.get(0).get(1)[3]).contains("\"deptName\":{\"old\":\"Sales\",\"new\":null}"));
+		assertFalse(Files.exists(dir.resolve("spill.jsonl")));
+	}
+
+	private static DepartmentDTO department(Long id, String name) {
+		DepartmentDTO dto = new DepartmentDTO();
+		dto.setDeptId(id);
+		dto.setDeptName(name);
+		return dto;
+	}
+}
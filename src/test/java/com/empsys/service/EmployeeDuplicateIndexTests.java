@@ -0,0 +1,115 @@
+package com.empsys.service;
+
+import com.empsys.repository.EmployeeStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeDuplicateIndexTests {
+
+	private final EmployeeStore employeeStore = mock(EmployeeStore.class);
+	private final List<Object[]> table = new ArrayList<>();
+	private EmployeeDuplicateIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new EmployeeDuplicateIndex();
+		ReflectionTestUtils.setField(index, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		when(employeeStore.findAllContactKeys()).thenAnswer(call -> new ArrayList<>(table));
+		table.add(new Object[] { 1L, "Asha@Example.com", "+91 98765-43210" });
+		table.add(new Object[] { 2L, "bala@example.com", null });
+		index.load();
+	}
+
+	@Test
+	void normalizesEmailsAndPhones() {
+		assertEquals("asha@example.com", EmployeeDuplicateIndex.normalizeEmail("  Asha@Example.COM "));
+		assertNull(EmployeeDuplicateIndex.normalizeEmail("   "));
+		assertEquals("9876543210", EmployeeDuplicateIndex.normalizePhone("+91 98765-43210"));
+		assertEquals("9876543210", EmployeeDuplicateIndex.normalizePhone("098765 43210"));
+		assertEquals("12345", EmployeeDuplicateIndex.normalizePhone("123-45"));
+		assertNull(EmployeeDuplicateIndex.normalizePhone("n/a"));
+	}
+
+	@Test
+	void rejectsKeysHeldByAnotherEmployee() {
+		assertConflict(() -> index.reserveNew("asha@example.com ", "1111111111"));
+		assertConflict(() -> index.reserveNew("new@example.com", "9876543210"));
+		// the failed phone claim gave the email back
+		assertNotNull(index.reserveNew("new@example.com", "1111111111"));
+	}
+
+	@Test
+	void releaseFreesTheClaimedKeys() {
+		EmployeeDuplicateIndex.Reservation first = index.reserveNew("chetan@example.com", "2222222222");
+		assertConflict(() -> index.reserveNew("CHETAN@example.com", null));
+
+		index.release(first);
+
+		assertNotNull(index.reserveNew("chetan@example.com", "2222222222"));
+	}
+
+	@Test
+	void commitBindsTheKeysAndGivesUpTheOldOnes() {
+		index.commit(index.reserveNew("chetan@example.com", null), 3L);
+		ResponseStatusException ex = assertConflict(() -> index.reserveNew("chetan@example.com", null));
+		assertTrue(ex.getReason().contains("employee 3"));
+
+		// employee 1 moves to a new email; the old one is free once the change is committed
+		index.commit(index.reserveChange(1L, "Asha@Example.com", "+91 98765-43210", "asha@new.com", "+91 98765-43210"), 1L);
+		assertNotNull(index.reserveNew("asha@example.com", null));
+		assertConflict(() -> index.reserveNew("asha@new.com", null));
+	}
+
+	@Test
+	void measuresTheHeapTakenByAHundredThousandEmployees() {
+		int employees = 100_000;
+		// built inside the answer so the rows are garbage once the keys are loaded
+		when(employeeStore.findAllContactKeys()).thenAnswer(call -> {
+			List<Object[]> rows = new ArrayList<>(employees);
+			for (int i = 1; i <= employees; i++) {
+				rows.add(new Object[] { (long) i, "first" + i + ".lastname" + i + "@example.com",
+						"+91 " + (9_000_000_000L + i) });
+			}
+			return rows;
+		});
+		index = new EmployeeDuplicateIndex();
+		ReflectionTestUtils.setField(index, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(index, "enabled", true);
+
+		long empty = usedHeap();
+		index.load();
+		long loaded = usedHeap() - empty;
+
+		System.out.printf("Duplicate index heap: %.1f MB for %d employees%n", loaded / 1048576.0, employees);
+		assertConflict(() -> index.reserveNew("first7.lastname7@example.com", null));
+		// two map entries, two strings and a boxed id per employee
+		assertTrue(loaded < 35L * 1048576, () -> "duplicate index takes " + loaded + " bytes");
+	}
+
+	private static ResponseStatusException assertConflict(Runnable reserve) {
+		ResponseStatusException ex = assertThrows(ResponseStatusException.class, reserve::run);
+		assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+		return ex;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// collections can leave garbage behind, take the lowest of a few
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+}
@@ -0,0 +1,166 @@
+package com.empsys.service;
+
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.entity.Department;
+import com.empsys.entity.Designation;
+import com.empsys.entity.Employee;
+import com.empsys.repository.EmployeeStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeReadModelTests {
+
+	private final EmployeeStore employeeStore = mock(EmployeeStore.class);
+	private final List<Employee> table = new ArrayList<>();
+	private EmployeeReadModel readModel;
+
+	@BeforeEach
+	void setUp() {
+		readModel = new EmployeeReadModel();
+		ReflectionTestUtils.setField(readModel, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(readModel, "enabled", true);
+		when(employeeStore.findAllWithReferences()).thenAnswer(call -> new ArrayList<>(table));
+		table.add(employee(1, "Asha", 10L, "Finance"));
+		table.add(employee(2, "Bala", 20L, "Sales"));
+		readModel.refresh();
+	}
+
+	@Test
+	void keepsSortOrdersInStepWithWrites() {
+		Random random = new Random(7);
+		List<String> names = List.of("asha", "Asha", "bala", "Chetan", "deepa", "Esha");
+		for (String field : EmployeeReadModel.SORT_FIELDS) {
+			readModel.findAll(PageRequest.of(0, 1, EmployeeService.sort(field, "asc")));
+		}
+
+		for (int round = 0; round < 500; round++) {
+			int op = random.nextInt(10);
+			if (op < 6) {
+				Employee emp = employee(1 + random.nextInt(40), names.get(random.nextInt(names.size())), 10L, "Finance");
+				emp.setLastName(random.nextBoolean() ? null : names.get(random.nextInt(names.size())));
+				emp.setHireDate(random.nextBoolean() ? null : new Date(random.nextInt(5) * 86_400_000L));
+				readModel.upsert(emp);
+				table.removeIf(e -> e.getEmpId().equals(emp.getEmpId()));
+				table.add(emp);
+			} else if (op < 9) {
+				long id = 1 + random.nextInt(40);
+				readModel.remove(id);
+				table.removeIf(e -> e.getEmpId() == id);
+			} else {
+				String name = names.get(random.nextInt(names.size()));
+				readModel.renameDepartment(10L, name);
+				table.forEach(e -> e.getDepartment().setDeptName(name));
+			}
+			for (String field : EmployeeReadModel.SORT_FIELDS) {
+				for (String direction : List.of("asc", "desc")) {
+					PageRequest pageable = PageRequest.of(0, 100, EmployeeService.sort(field, direction));
+					List<Long> expected = fresh().findAll(pageable).getContent().stream().map(EmployeeDTO::getEmpId).toList();
+					List<Long> actual = readModel.findAll(pageable).getContent().stream().map(EmployeeDTO::getEmpId).toList();
+					assertEquals(expected, actual, field + " " + direction + " after round " + round);
+				}
+			}
+		}
+		// the writes did not go back to the database
+		verify(employeeStore, times(1)).findAllWithReferences();
+	}
+
+	@Test
+	void measuresTheHeapTakenByAHundredThousandEmployees() {
+		int employees = 100_000;
+		Department department = employee(0, "x", 10L, "Finance").getDepartment();
+		Designation designation = employee(0, "x", 10L, "Finance").getDesignation();
+		// built inside the answer so the entities are garbage once the snapshot is loaded
+		when(employeeStore.findAllWithReferences()).thenAnswer(call -> {
+			List<Employee> rows = new ArrayList<>(employees);
+			for (int i = 1; i <= employees; i++) {
+				Employee emp = new Employee();
+				emp.setEmpId((long) i);
+				emp.setFirstName("First" + i);
+				emp.setLastName("Lastname" + i);
+				emp.setEmail("first" + i + ".lastname" + i + "@example.com");
+				emp.setPhone(String.valueOf(9_000_000_000L + i));
+				emp.setHireDate(new Date(i * 60_000L));
+				emp.setDepartment(department);
+				emp.setDesignation(designation);
+				rows.add(emp);
+			}
+			return rows;
+		});
+		readModel = new EmployeeReadModel();
+		ReflectionTestUtils.setField(readModel, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(readModel, "enabled", true);
+
+		long empty = usedHeap();
+		readModel.refresh();
+		readModel.findAll(PageRequest.of(0, 10, EmployeeService.sort("firstName", "asc")));
+		long loaded = usedHeap() - empty;
+		readModel.findAll(PageRequest.of(0, 10, EmployeeService.sort("lastName", "asc")));
+		long view = usedHeap() - empty - loaded;
+
+		System.out.printf("Read model heap: %.1f MB for %d employees with one sort order, %.2f MB per further order%n",
+				loaded / 1048576.0, employees, view / 1048576.0);
+		assertEquals(employees, readModel.count());
+		// about 320 bytes per employee (row and four strings), 4 bytes per employee per sort order
+		assertTrue(loaded < 40L * 1048576, () -> "read model takes " + loaded + " bytes");
+		assertTrue(view < 2L * 1048576, () -> "a sort order takes " + view + " bytes");
+	}
+
+	@Test
+	void renamesDepartmentWithoutReloading() {
+		readModel.renameDepartment(10L, "Treasury");
+
+		Sort sort = EmployeeService.sort("empId", "asc");
+		assertEquals(1, readModel.search("treasury", PageRequest.of(0, 10, sort)).getTotalElements());
+		assertEquals(0, readModel.search("finance", PageRequest.of(0, 10, sort)).getTotalElements());
+		verify(employeeStore, times(1)).findAllWithReferences();
+	}
+
+	// a model loaded from the table as it is now, to compare against
+	private EmployeeReadModel fresh() {
+		EmployeeStore store = mock(EmployeeStore.class);
+		when(store.findAllWithReferences()).thenReturn(new ArrayList<>(table));
+		EmployeeReadModel model = new EmployeeReadModel();
+		ReflectionTestUtils.setField(model, "employeeStore", store);
+		ReflectionTestUtils.setField(model, "enabled", true);
+		model.refresh();
+		return model;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// collections can leave garbage behind, take the lowest of a few
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	private static Employee employee(long id, String firstName, Long deptId, String deptName) {
+		Department department = new Department();
+		department.setDeptId(deptId);
+		department.setDeptName(deptName);
+		Designation designation = new Designation();
+		designation.setDesigId(1L);
+		designation.setDesigName("Analyst");
+		Employee emp = new Employee();
+		emp.setEmpId(id);
+		emp.setFirstName(firstName);
+		emp.setEmail(firstName.toLowerCase() + "@example.com");
+		emp.setDepartment(department);
+		emp.setDesignation(designation);
+		return emp;
+	}
+}
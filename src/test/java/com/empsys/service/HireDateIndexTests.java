@@ -0,0 +1,125 @@
+package com.empsys.service;
+
+import com.empsys.repository.EmployeeStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HireDateIndexTests {
+
+	private static final LocalDate WINDOW = LocalDate.of(2020, 1, 1);
+
+	private final EmployeeStore employeeStore = mock(EmployeeStore.class);
+	// the employee table: id to hire date, null for no hire date
+	private final Map<Long, LocalDate> table = new TreeMap<>();
+	private HireDateIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new HireDateIndex();
+		ReflectionTestUtils.setField(index, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		when(employeeStore.findAllHireDates()).thenAnswer(call -> rows());
+	}
+
+	@Test
+	void matchesASortedListUnderRandomWrites() {
+		Random random = new Random(42);
+		for (long id = 1; id <= 200; id++) {
+			table.put(id, randomDate(random));
+		}
+		index.refresh();
+		long nextId = 201;
+
+		for (int round = 0; round < 2000; round++) {
+			int op = random.nextInt(10);
+			if (op < 3) {
+				long id = nextId++;
+				LocalDate hired = randomDate(random);
+				table.put(id, hired);
+				index.upsert(id, null, date(hired));
+			} else if (op < 6 && !table.isEmpty()) {
+				long id = randomId(random);
+				LocalDate before = table.get(id);
+				LocalDate hired = randomDate(random);
+				table.put(id, hired);
+				index.upsert(id, date(before), date(hired));
+			} else if (op < 8 && !table.isEmpty()) {
+				long id = randomId(random);
+				index.remove(id, date(table.remove(id)));
+			} else if (op == 8) {
+				index.refresh();
+			}
+			assertMatches(random);
+		}
+	}
+
+	private void assertMatches(Random random) {
+		// ranges may start before the window and end after it, or be empty
+		LocalDate from = WINDOW.plusDays(random.nextInt(40) - 5);
+		LocalDate to = from.plusDays(random.nextInt(20) - 2);
+		List<Long> expected = sorted(from, to);
+		assertEquals(expected.size(), index.count(from, to), () -> "count " + from + ".." + to);
+
+		int size = 1 + random.nextInt(15);
+		int page = random.nextInt(expected.size() / size + 2);
+		int offset = page * size;
+		Page<Long> ascending = index.page(from, to, PageRequest.of(page, size, EmployeeService.sort("hireDate", "asc")));
+		assertEquals(slice(expected, offset, size), ascending.getContent(),
+				() -> "ascending " + from + ".." + to + " offset " + offset + " size " + size);
+		assertEquals(expected.size(), ascending.getTotalElements());
+		List<Long> reversed = new ArrayList<>(expected);
+		Collections.reverse(reversed);
+		Page<Long> descending = index.page(from, to, PageRequest.of(page, size, EmployeeService.sort("hireDate", "desc")));
+		assertEquals(slice(reversed, offset, size), descending.getContent(),
+				() -> "descending " + from + ".." + to + " offset " + offset + " size " + size);
+		assertEquals(expected.size(), descending.getTotalElements());
+	}
+
+	// brute force: the ids hired from..to ordered by hire date and then id
+	private List<Long> sorted(LocalDate from, LocalDate to) {
+		return table.entrySet().stream()
+				.filter(e -> e.getValue() != null && !e.getValue().isBefore(from) && !e.getValue().isAfter(to))
+				.sorted(Map.Entry.<Long, LocalDate>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	private static List<Long> slice(List<Long> ids, int offset, int size) {
+		return offset >= ids.size() ? List.of() : ids.subList(offset, Math.min(ids.size(), offset + size));
+	}
+
+	private List<Object[]> rows() {
+		List<Object[]> rows = new ArrayList<>();
+		table.forEach((id, hired) -> rows.add(new Object[] { id, date(hired) }));
+		return rows;
+	}
+
+	private long randomId(Random random) {
+		List<Long> ids = new ArrayList<>(table.keySet());
+		return ids.get(random.nextInt(ids.size()));
+	}
+
+	// a few days only, so buckets hold several employees; one in ten has no hire date
+	private static LocalDate randomDate(Random random) {
+		return random.nextInt(10) == 0 ? null : WINDOW.plusDays(random.nextInt(30));
+	}
+
+	private static Date date(LocalDate day) {
+		return day != null ? Date.valueOf(day) : null;
+	}
+}
@@ -0,0 +1,72 @@
+package com.empsys.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayingReloaderTests {
+
+	private final ReplayingReloader reloader = new ReplayingReloader(new ReentrantLock());
+	// the table, and the in-memory copy the reloader keeps up to date
+	private final TreeSet<Integer> table = new TreeSet<>();
+	private TreeSet<Integer> copy = new TreeSet<>();
+
+	@Test
+	void replaysWritesMadeWhileAReloadIsReading() {
+		table.addAll(List.of(1, 2));
+		// made before the first load: not applied, the load reads it from the table
+		add(3);
+		assertFalse(reloader.isLoaded());
+		assertTrue(copy.isEmpty());
+
+		int replayed = reloader.reload(() -> {
+			TreeSet<Integer> rows = new TreeSet<>(table);
+			// committed after the read, so missing from the rows
+			add(4);
+			remove(1);
+			return rows;
+		}, loaded -> copy = loaded);
+
+		assertEquals(2, replayed);
+		assertTrue(reloader.isLoaded());
+		assertEquals(table, copy);
+
+		// once loaded, writes go straight to the copy and are no longer recorded
+		add(5);
+		assertEquals(0, reloader.reload(() -> new TreeSet<>(table), loaded -> copy = loaded));
+		assertEquals(table, copy);
+	}
+
+	@Test
+	void aFailedReadKeepsTheCurrentCopy() {
+		table.add(1);
+		reloader.reload(() -> new TreeSet<>(table), loaded -> copy = loaded);
+
+		List<Integer> swapped = new ArrayList<>();
+		assertThrows(IllegalStateException.class, () -> reloader.reload(() -> {
+			add(2);
+			throw new IllegalStateException("down");
+		}, loaded -> swapped.add(1)));
+		add(3);
+
+		assertTrue(swapped.isEmpty());
+		assertEquals(table, copy);
+		// nothing recorded during the failed reload is replayed by the next one
+		assertEquals(0, reloader.reload(() -> new TreeSet<>(table), loaded -> copy = loaded));
+	}
+
+	private void add(int id) {
+		table.add(id);
+		reloader.apply(() -> copy.add(id));
+	}
+
+	private void remove(int id) {
+		table.remove(id);
+		reloader.apply(() -> copy.remove(id));
+	}
+}
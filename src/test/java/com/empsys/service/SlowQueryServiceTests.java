@@ -0,0 +1,101 @@
+package com.empsys.service;
+
+import com.empsys.config.ObservedDataSource;
+import com.empsys.dto.SlowQueryDTO;
+import com.empsys.repository.EmployeeStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryServiceTests {
+
+	private final SlowQueryService slowQueries = new SlowQueryService();
+	private JdbcTemplate observed;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(slowQueries, "thresholdMs", 0L);
+		ReflectionTestUtils.setField(slowQueries, "explain", true);
+		ReflectionTestUtils.setField(slowQueries, "maxStatements", 500);
+		ObjectProvider<SlowQueryService> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(slowQueries);
+		DriverManagerDataSource h2 = new DriverManagerDataSource(
+				"jdbc:h2:mem:slow-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		new JdbcTemplate(h2).execute("CREATE TABLE person (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+		observed = new JdbcTemplate(new ObservedDataSource(h2, provider));
+	}
+
+	@AfterEach
+	void tearDown() {
+		slowQueries.stop();
+	}
+
+	@Test
+	void normalizesLiteralsAndCollapsesInLists() {
+		assertEquals("SELECT * FROM person WHERE name = ? AND id > ? AND score < ?",
+				SlowQueryService.normalize("SELECT *\n  FROM person WHERE name = 'O''Brien' AND id > 42 AND score < 3.5"));
+		// digits inside identifiers and aliases are kept
+		assertEquals("select e1_0.emp_id from employee e1_0 where e1_0.emp_id = ?",
+				SlowQueryService.normalize("select e1_0.emp_id from employee e1_0 where e1_0.emp_id = 7"));
+		// literal, bound and mixed IN lists of any length end up the same
+		String collapsed = "SELECT * FROM person WHERE id in (?) AND name in (?)";
+		assertEquals(collapsed, SlowQueryService.normalize("SELECT * FROM person WHERE id in (1, 2, 3) AND name IN ('a','b')"));
+		assertEquals(collapsed, SlowQueryService.normalize("SELECT * FROM person WHERE id in ( ?,? ) AND name IN (?)"));
+		assertEquals(collapsed, SlowQueryService.normalize("SELECT * FROM person WHERE id in (?, 2) AND name IN ('x')"));
+	}
+
+	@Test
+	void flagsFullScansInH2Plans() throws Exception {
+		observed.queryForList("SELECT * FROM person WHERE name = ?", "Asha");
+		observed.queryForList("SELECT * FROM person WHERE id = ?", 1L);
+		// answered from the table's row count, no rows are read
+		observed.queryForObject("SELECT COUNT(*) FROM person", Long.class);
+
+		SlowQueryDTO byName = explained("SELECT * FROM person WHERE name = ?");
+		assertTrue(byName.getFullScan(), byName.getPlan());
+		assertEquals(List.of("PERSON"), byName.getScannedTables());
+		SlowQueryDTO byId = explained("SELECT * FROM person WHERE id = ?");
+		assertFalse(byId.getFullScan(), byId.getPlan());
+		SlowQueryDTO count = explained("SELECT COUNT(*) FROM person");
+		assertFalse(count.getFullScan(), count.getPlan());
+	}
+
+	@Test
+	void attributesStatementsToTheRepositoryOrTheCallingClass() throws Exception {
+		// a Spring Data repository is a JDK proxy implementing the repository interface
+		EmployeeStore repository = (EmployeeStore) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { EmployeeStore.class },
+				(proxy, method, args) -> observed.queryForObject("SELECT COUNT(*) FROM person WHERE id > ?", Long.class, 0L));
+		repository.count();
+		observed.queryForList("SELECT name FROM person");
+
+		assertEquals("EmployeeStore.count", explained("SELECT COUNT(*) FROM person WHERE id > ?").getOrigin());
+		assertEquals("SlowQueryServiceTests.attributesStatementsToTheRepositoryOrTheCallingClass",
+				explained("SELECT name FROM person").getOrigin());
+	}
+
+	// waits for the background EXPLAIN of the statement
+	private SlowQueryDTO explained(String sql) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			SlowQueryDTO found = slowQueries.getSlowQueries().stream()
+					.filter(q -> q.getSql().equals(sql)).findFirst().orElse(null);
+			if (found != null && found.getPlan() != null) {
+				return found;
+			}
+			Thread.sleep(50);
+		}
+		return fail("no explained slow query " + sql + " in " + slowQueries.getSlowQueries());
+	}
+}
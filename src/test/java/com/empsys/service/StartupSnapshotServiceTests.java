@@ -0,0 +1,140 @@
+package com.empsys.service;
+
+import com.empsys.config.CacheConfig;
+import com.empsys.dto.DepartmentDTO;
+import com.empsys.dto.DesignationDTO;
+import com.empsys.dto.EmployeeDTO;
+import com.empsys.repository.EmployeeStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class StartupSnapshotServiceTests {
+
+	@TempDir
+	Path dir;
+
+	private final EmployeeService employeeService = mock(EmployeeService.class);
+	private final EmployeeStore employeeStore = mock(EmployeeStore.class);
+	private final List<EmployeeDTO> table = List.of(employee(1L, "Asha"), employee(2L, "Bala"));
+
+	@BeforeEach
+	void setUp() {
+		when(employeeService.countEmployee()).thenReturn(2L);
+		when(employeeService.maxEmployeeId()).thenReturn(2L);
+		// in no particular order, like the store
+		when(employeeStore.findAllById(anyCollection())).thenReturn(List.of(table.get(1), table.get(0)));
+	}
+
+	@Test
+	void roundTripsTheCachesWithoutWritingEmployeeDetails() throws Exception {
+		StartupSnapshotService before = service();
+		cacheManager(before).getCache(CacheConfig.DEPARTMENTS).put(SimpleKey.EMPTY, List.of(department(1L, "Finance")));
+		cacheManager(before).getCache(CacheConfig.DESIGNATIONS).put(SimpleKey.EMPTY, List.of(designation(1L, "Analyst")));
+		PageRequest pageable = PageRequest.of(0, 10, EmployeeService.sort("firstName", "asc"));
+		cacheManager(before).getCache(CacheConfig.EMPLOYEE_PAGES)
+				.put(EmployeeService.pageKey(0, 10, "firstName", "asc"), new PageImpl<>(table, pageable, 2));
+
+		before.writeSnapshot();
+
+		Path file = dir.resolve("warm.json");
+		String json = Files.readString(file, StandardCharsets.UTF_8);
+		assertTrue(json.contains("Finance"));
+		assertFalse(json.contains("Asha"));
+		assertFalse(json.contains("asha@example.com"));
+		if (Files.getFileAttributeView(file, PosixFileAttributeView.class) != null) {
+			assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+		}
+
+		StartupSnapshotService after = service();
+		after.run(null);
+
+		List<?> departments = cacheManager(after).getCache(CacheConfig.DEPARTMENTS).get(SimpleKey.EMPTY, List.class);
+		assertEquals(1, departments.size());
+		List<?> designations = cacheManager(after).getCache(CacheConfig.DESIGNATIONS).get(SimpleKey.EMPTY, List.class);
+		assertEquals(1, designations.size());
+		Page<?> page = cacheManager(after).getCache(CacheConfig.EMPLOYEE_PAGES)
+				.get(EmployeeService.pageKey(0, 10, "firstName", "asc"), Page.class);
+		assertEquals(2, page.getTotalElements());
+		assertEquals(pageable, page.getPageable());
+		assertEquals(List.of("Asha", "Bala"), page.getContent().stream().map(e -> ((EmployeeDTO) e).getFirstName()).toList());
+		verify(employeeStore, times(1)).findAllById(anyCollection());
+	}
+
+	@Test
+	void skipsEmployeePagesWhenEmployeesWereAddedOrRemoved() {
+		StartupSnapshotService before = service();
+		cacheManager(before).getCache(CacheConfig.DEPARTMENTS).put(SimpleKey.EMPTY, List.of(department(1L, "Finance")));
+		PageRequest pageable = PageRequest.of(0, 10, EmployeeService.sort("empId", "asc"));
+		cacheManager(before).getCache(CacheConfig.EMPLOYEE_PAGES)
+				.put(EmployeeService.pageKey(0, 10, "empId", "asc"), new PageImpl<>(table, pageable, 2));
+		before.writeSnapshot();
+
+		when(employeeService.countEmployee()).thenReturn(3L);
+		StartupSnapshotService after = service();
+		after.run(null);
+
+		assertNotNull(cacheManager(after).getCache(CacheConfig.DEPARTMENTS).get(SimpleKey.EMPTY));
+		assertNull(cacheManager(after).getCache(CacheConfig.EMPLOYEE_PAGES).get(EmployeeService.pageKey(0, 10, "empId", "asc")));
+		verifyNoInteractions(employeeStore);
+	}
+
+	private StartupSnapshotService service() {
+		StartupSnapshotService service = new StartupSnapshotService();
+		ReflectionTestUtils.setField(service, "cacheManager",
+				new ConcurrentMapCacheManager(CacheConfig.DEPARTMENTS, CacheConfig.DESIGNATIONS, CacheConfig.EMPLOYEE_PAGES));
+		ReflectionTestUtils.setField(service, "employeeService", employeeService);
+		ReflectionTestUtils.setField(service, "employeeStore", employeeStore);
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "enabled", true);
+		ReflectionTestUtils.setField(service, "path", dir.resolve("warm.json").toString());
+		ReflectionTestUtils.setField(service, "maxAgeMinutes", 60L);
+		ReflectionTestUtils.setField(service, "maxEmployeePages", 10);
+		return service;
+	}
+
+	private static CacheManager cacheManager(StartupSnapshotService service) {
+		return (CacheManager) ReflectionTestUtils.getField(service, "cacheManager");
+	}
+
+	private static EmployeeDTO employee(Long id, String firstName) {
+		EmployeeDTO dto = new EmployeeDTO();
+		dto.setEmpId(id);
+		dto.setFirstName(firstName);
+		dto.setEmail(firstName.toLowerCase() + "@example.com");
+		return dto;
+	}
+
+	private static DepartmentDTO department(Long id, String name) {
+		DepartmentDTO dto = new DepartmentDTO();
+		dto.setDeptId(id);
+		dto.setDeptName(name);
+		return dto;
+	}
+
+	private static DesignationDTO designation(Long id, String name) {
+		DesignationDTO dto = new DesignationDTO();
+		dto.setDesigId(id);
+		dto.setDesigName(name);
+		return dto;
+	}
+}
@@ -0,0 +1,45 @@
+-- ======================================================
+-- The tables of db_script.sql (the V1 baseline the real migrations start from)
+-- without its database, sample data and queries, so the load test can run
+-- V2 onwards from src/main/resources/db/migration on H2. Keep in step with
+-- db_script.sql.
+-- ======================================================
+
+CREATE TABLE department (
+    dept_id INT PRIMARY KEY AUTO_INCREMENT,
+    dept_name VARCHAR(100) UNIQUE NOT NULL
+);
+
+CREATE TABLE designation (
+    desig_id INT PRIMARY KEY AUTO_INCREMENT,
+    desig_name VARCHAR(100) UNIQUE NOT NULL
+);
+
+CREATE TABLE employee (
+    emp_id INT PRIMARY KEY AUTO_INCREMENT,
+    first_name VARCHAR(100) NOT NULL,
+    last_name VARCHAR(100),
+    email VARCHAR(150) UNIQUE NOT NULL,
+    phone VARCHAR(20),
+    hire_date DATE,
+    dept_id INT,
+    desig_id INT,
+    FOREIGN KEY (dept_id) REFERENCES department(dept_id),
+    FOREIGN KEY (desig_id) REFERENCES designation(desig_id)
+);
+
+CREATE TABLE user_creds (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    username VARCHAR(100) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE audit_log (
+    audit_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT,
+    action VARCHAR(10) NOT NULL,
+    changes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_audit_entity (entity_type, entity_id)
+);
@@ -0,0 +1,13 @@
+-- Load-test data: 5 departments, 5 designations, the admin login from api.json and 10,000 employees.
+-- Flyway runs this callback after the migrations, so the rows land in the migrated schema.
+
+INSERT INTO department (dept_name) VALUES ('Human Resources'), ('Finance'), ('Engineering'), ('Sales'), ('Operations');
+
+INSERT INTO designation (desig_name) VALUES ('Manager'), ('Software Engineer'), ('HR Executive'), ('Analyst'), ('Director');
+
+INSERT INTO user_creds (username, password_hash) VALUES ('admin', 'encrypted_pass');
+
+INSERT INTO employee (first_name, last_name, email, phone, hire_date, dept_id, desig_id)
+SELECT 'First' || X, 'Last' || MOD(X, 997), 'employee' || X || '@example.com', CAST(9000000000 + X AS VARCHAR),
+       DATEADD('DAY', -MOD(X * 37, 7300), DATE '2025-01-01'), 1 + MOD(X, 5), 1 + MOD(X * 7, 5)
+FROM SYSTEM_RANGE(1, 10000);